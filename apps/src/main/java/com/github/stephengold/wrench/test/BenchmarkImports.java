@@ -0,0 +1,357 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench.test;
+
+import com.github.stephengold.wrench.ImportStatistics;
+import com.github.stephengold.wrench.IndexedZipLocator;
+import com.github.stephengold.wrench.LwjglAssetKey;
+import com.github.stephengold.wrench.LwjglAssetLoader;
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.util.BufferUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import jme3utilities.MyString;
+import org.lwjgl.assimp.AIColor4D;
+import org.lwjgl.assimp.AIVector3D;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Console application to benchmark the optimized import paths against
+ * reference implementations of the code they replaced:
+ * <ol>
+ * <li>converting vertex attributes from Assimp structs to JME float buffers,
+ * per element versus with a single bulk copy,</li>
+ * <li>small reads through the AIFile callback path, per byte with a map lookup
+ * versus with a slot lookup and a bulk copy, and</li>
+ * <li>the number of bytes ingested and read per import, using an
+ * {@code ImportListener}.</li>
+ * </ol>
+ * Each micro-benchmark is warmed up, then the median of several timed runs is
+ * reported.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class BenchmarkImports {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of timed runs of each micro-benchmark
+     */
+    final private static int numRuns = 9;
+    /**
+     * number of untimed warm-up runs of each micro-benchmark
+     */
+    final private static int numWarmups = 5;
+    /**
+     * number of bytes in each simulated callback read
+     */
+    final private static int recordNumBytes = 12;
+    /**
+     * default number of vertices in the vertex-copy benchmark
+     */
+    final private static int defaultNumVertices = 2_000_000;
+    /**
+     * number of simulated callback reads
+     */
+    final private static int numReads = 1_000_000;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(BenchmarkImports.class.getName());
+    /**
+     * names of the assets to import
+     */
+    final private static String[] assetNames = {
+        "BasicCubeLow", "Box", "Duck", "Ninja", "PbrRef", "SinbadXml",
+        "TeapotObj", "TwoChairs"
+    };
+    // *************************************************************************
+    // fields
+
+    /**
+     * statistics from the most recent import
+     */
+    private static ImportStatistics lastStatistics;
+    /**
+     * accumulates results so the JIT can't discard the benchmarked work
+     */
+    private static long sink;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private BenchmarkImports() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the BenchmarkImports application.
+     *
+     * @param arguments array of command-line arguments (the first, if any,
+     * specifies the number of vertices in the vertex-copy benchmark)
+     */
+    public static void main(String[] arguments) {
+        int numVertices = defaultNumVertices;
+        if (arguments.length > 0) {
+            numVertices = Integer.parseInt(arguments[0]);
+        }
+
+        benchmarkVertexCopies(numVertices);
+        benchmarkCallbackReads();
+        benchmarkIngestion();
+
+        System.out.println("(checksum " + sink + ")");
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Compare small reads through a reference callback path (map lookup, new
+     * buffer wrapper, and a per-byte loop, as in the original
+     * {@code AssetFile.read()}) with the current one (slot lookup and a single
+     * {@code memCopy()}).
+     */
+    private static void benchmarkCallbackReads() {
+        int contentNumBytes = 1 << 24;
+        ByteBuffer content = BufferUtils.createByteBuffer(contentNumBytes);
+        for (int i = 0; i < contentNumBytes; ++i) {
+            content.put(i, (byte) i);
+        }
+        long contentAddress = MemoryUtil.memAddress(content);
+        ByteBuffer destination = BufferUtils.createByteBuffer(recordNumBytes);
+        long destAddress = MemoryUtil.memAddress(destination);
+
+        // Register the "file" both ways:
+        long handle = 0x7f00_1234_5678L;
+        Map<Long, ByteBuffer> handleMap = new TreeMap<>();
+        handleMap.put(handle, content);
+        long[] baseAddresses = {contentAddress};
+        int slot = 0;
+        int maxPosition = contentNumBytes - recordNumBytes;
+
+        long referenceNanos = medianNanos(() -> {
+            long sum = 0L;
+            int position = 0;
+            for (int readI = 0; readI < numReads; ++readI) {
+                ByteBuffer source = handleMap.get(handle);
+                ByteBuffer dest = MemoryUtil.memByteBufferSafe(
+                        destAddress, recordNumBytes);
+                for (int i = 0; i < recordNumBytes; ++i) {
+                    dest.put(i, source.get(position + i));
+                }
+                sum += dest.get(0);
+                position = (position + recordNumBytes) % maxPosition;
+            }
+            return sum;
+        });
+        long bulkNanos = medianNanos(() -> {
+            long sum = 0L;
+            int position = 0;
+            for (int readI = 0; readI < numReads; ++readI) {
+                long sourceAddress = baseAddresses[slot];
+                MemoryUtil.memCopy(sourceAddress + position, destAddress,
+                        recordNumBytes);
+                sum += MemoryUtil.memGetByte(destAddress);
+                position = (position + recordNumBytes) % maxPosition;
+            }
+            return sum;
+        });
+
+        System.out.printf("Callback reads (%d x %d bytes): "
+                + "per-byte %.3f ms, bulk %.3f ms (%.1fx)%n",
+                numReads, recordNumBytes, referenceNanos * 1e-6,
+                bulkNanos * 1e-6, referenceNanos / (double) bulkNanos);
+    }
+
+    /**
+     * Import several jme3-testdata assets and report, for each import, the
+     * bytes ingested from the AssetManager (which the original 2-pass
+     * implementation read twice) and the bytes read by Assimp.
+     */
+    private static void benchmarkIngestion() {
+        AssetGroup group = new Jme3TestData("3.6.1-stable");
+        if (!group.isAccessible()) {
+            logger.warning("The test assets are not accessible! "
+                    + "Skipping the ingestion benchmark.");
+            return;
+        }
+
+        DesktopAssetManager assetManager = new DesktopAssetManager(true);
+        String rootPath = group.rootPath(assetNames[0]);
+        assetManager.registerLocator(rootPath, IndexedZipLocator.class);
+
+        System.out.printf("%-12s %6s %12s %12s %10s %10s%n", "asset",
+                "files", "ingested", "read", "calls", "import ms");
+        long totalIngested = 0L;
+        long totalRead = 0L;
+        for (String assetName : assetNames) {
+            String assetPath = group.assetPath(assetName);
+            LwjglAssetKey key = new LwjglAssetKey(assetPath);
+            key.setImportListener(
+                    (ImportStatistics statistics) -> {
+                        lastStatistics = statistics;
+                    });
+            AssetInfo info = assetManager.locateAsset(key);
+            if (info == null) {
+                System.out.println("Can't locate " + MyString.quote(assetPath));
+                continue;
+            }
+
+            lastStatistics = null;
+            try {
+                new LwjglAssetLoader().load(info);
+            } catch (IOException | RuntimeException exception) {
+                System.out.println("Failed to import "
+                        + MyString.quote(assetPath) + ": " + exception);
+            }
+
+            ImportStatistics stats = lastStatistics;
+            if (stats != null) {
+                System.out.printf("%-12s %6d %12d %12d %10d %10.3f%n",
+                        assetName, stats.countFilesOpened(),
+                        stats.countBytesIngested(), stats.countBytesRead(),
+                        stats.countReadCalls(), stats.importNanos() * 1e-6);
+                totalIngested += stats.countBytesIngested();
+                totalRead += stats.countBytesRead();
+            }
+        }
+        System.out.printf("Total: ingested %d bytes in a single pass "
+                + "(a 2-pass ingestion would read %d), Assimp read %d bytes.%n",
+                totalIngested, 2L * totalIngested, totalRead);
+    }
+
+    /**
+     * Compare converting vertex positions and colors from Assimp structs one
+     * element at a time (as MeshBuilder originally did) with a single bulk
+     * copy per attribute (as it does now).
+     *
+     * @param numVertices the number of vertices to convert (&gt;0)
+     */
+    private static void benchmarkVertexCopies(int numVertices) {
+        AIVector3D.Buffer positions = AIVector3D.calloc(numVertices);
+        AIColor4D.Buffer colors = AIColor4D.calloc(numVertices);
+        for (int i = 0; i < numVertices; ++i) {
+            positions.get(i).set(i, -i, 0.5f * i);
+            colors.get(i).set(0.1f, 0.2f, 0.3f, i);
+        }
+        FloatBuffer positionBuffer
+                = BufferUtils.createFloatBuffer(3 * numVertices);
+        FloatBuffer colorBuffer
+                = BufferUtils.createFloatBuffer(4 * numVertices);
+
+        try {
+            long referenceNanos = medianNanos(() -> {
+                positionBuffer.clear();
+                colorBuffer.clear();
+                for (int i = 0; i < numVertices; ++i) {
+                    AIVector3D position = positions.get(i);
+                    positionBuffer.put(position.x())
+                            .put(position.y())
+                            .put(position.z());
+                    AIColor4D color = colors.get(i);
+                    colorBuffer.put(color.r())
+                            .put(color.g())
+                            .put(color.b())
+                            .put(color.a());
+                }
+                return checksum(positionBuffer, colorBuffer);
+            });
+            long bulkNanos = medianNanos(() -> {
+                MemoryUtil.memCopy(positions.address(),
+                        MemoryUtil.memAddress0(positionBuffer),
+                        (long) numVertices * AIVector3D.SIZEOF);
+                MemoryUtil.memCopy(colors.address(),
+                        MemoryUtil.memAddress0(colorBuffer),
+                        (long) numVertices * AIColor4D.SIZEOF);
+                return checksum(positionBuffer, colorBuffer);
+            });
+
+            System.out.printf("Vertex copies (%d positions + colors): "
+                    + "per-element %.3f ms, bulk %.3f ms (%.1fx)%n",
+                    numVertices, referenceNanos * 1e-6, bulkNanos * 1e-6,
+                    referenceNanos / (double) bulkNanos);
+        } finally {
+            positions.free();
+            colors.free();
+        }
+    }
+
+    /**
+     * Sample the specified buffers, so that the work that filled them can't
+     * be discarded.
+     *
+     * @param positions the position buffer (not null, unaffected)
+     * @param colors the color buffer (not null, unaffected)
+     * @return a checksum
+     */
+    private static long checksum(FloatBuffer positions, FloatBuffer colors) {
+        int last = positions.capacity() - 1;
+        long result = Float.floatToIntBits(positions.get(last))
+                + Float.floatToIntBits(colors.get(colors.capacity() - 1));
+
+        return result;
+    }
+
+    /**
+     * Run the specified benchmark repeatedly and return the median time of
+     * the timed runs.
+     *
+     * @param benchmark the benchmark to run (not null), returning a checksum
+     * @return the median elapsed time (in nanoseconds)
+     */
+    private static long medianNanos(LongSupplier benchmark) {
+        for (int i = 0; i < numWarmups; ++i) {
+            sink += benchmark.getAsLong();
+        }
+
+        long[] nanos = new long[numRuns];
+        for (int i = 0; i < numRuns; ++i) {
+            long startNanos = System.nanoTime();
+            sink += benchmark.getAsLong();
+            nanos[i] = System.nanoTime() - startNanos;
+        }
+        Arrays.sort(nanos);
+        long result = nanos[numRuns / 2];
+
+        return result;
+    }
+}
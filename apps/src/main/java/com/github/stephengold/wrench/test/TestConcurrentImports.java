@@ -0,0 +1,220 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench.test;
+
+import com.github.stephengold.wrench.IndexedZipLocator;
+import com.github.stephengold.wrench.LwjglAssetKey;
+import com.github.stephengold.wrench.LwjglAssetLoader;
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetLocator;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.asset.plugins.ZipLocator;
+import com.jme3.scene.Spatial;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import jme3utilities.MySpatial;
+import jme3utilities.MyString;
+
+/**
+ * Console application to stress-test concurrent imports: it loads several
+ * jme3-testdata assets serially, then loads them repeatedly from a pool of
+ * threads and verifies that every concurrent load matches the serial one.
+ * The test is run once with {@code ZipLocator} and once with
+ * {@code IndexedZipLocator}.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class TestConcurrentImports {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * default number of worker threads
+     */
+    final private static int defaultNumThreads = 8;
+    /**
+     * number of times to load each asset concurrently
+     */
+    final private static int numRounds = 8;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(TestConcurrentImports.class.getName());
+    /**
+     * names of the assets to load
+     */
+    final private static String[] assetNames = {
+        "BasicCubeLow", "Box", "Duck", "Ninja", "PbrRef", "SinbadXml",
+        "TeapotObj", "TwoChairs"
+    };
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private TestConcurrentImports() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the TestConcurrentImports application.
+     *
+     * @param arguments array of command-line arguments (the first, if any,
+     * specifies the number of worker threads)
+     */
+    public static void main(String[] arguments) {
+        int numThreads = defaultNumThreads;
+        if (arguments.length > 0) {
+            numThreads = Integer.parseInt(arguments[0]);
+        }
+
+        AssetGroup group = new Jme3TestData("3.6.1-stable");
+        if (!group.isAccessible()) {
+            logger.severe("The test assets are not accessible! Quitting...");
+            return;
+        }
+
+        // Test the stock locator, then the indexed one:
+        int numFailures = testLocator(group, ZipLocator.class, numThreads);
+        numFailures
+                += testLocator(group, IndexedZipLocator.class, numThreads);
+        if (numFailures > 0) {
+            System.exit(1);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Load the specified asset using LwjglAssetLoader, bypassing the
+     * AssetManager's cache.
+     *
+     * @param assetManager the AssetManager to use (not null)
+     * @param assetPath the path to the asset (not null)
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if the asset cannot be loaded
+     */
+    private static Spatial load(
+            DesktopAssetManager assetManager, String assetPath)
+            throws IOException {
+        LwjglAssetKey key = new LwjglAssetKey(assetPath);
+        AssetInfo info = assetManager.locateAsset(key);
+        if (info == null) {
+            throw new IOException(
+                    "Can't locate asset " + MyString.quote(assetPath));
+        }
+
+        LwjglAssetLoader loader = new LwjglAssetLoader();
+        Spatial result = (Spatial) loader.load(info);
+
+        return result;
+    }
+
+    /**
+     * Load each asset serially, then load them all repeatedly from a pool of
+     * threads, using the specified locator.
+     *
+     * @param group the asset group to load from (not null)
+     * @param locatorClass the class of locator to register (not null)
+     * @param numThreads the number of worker threads (&gt;0)
+     * @return the number of failed loads (&ge;0)
+     */
+    private static int testLocator(AssetGroup group,
+            Class<? extends AssetLocator> locatorClass, int numThreads) {
+        // A single AssetManager is shared by all worker threads:
+        DesktopAssetManager assetManager = new DesktopAssetManager(true);
+        String rootPath = group.rootPath(assetNames[0]);
+        assetManager.registerLocator(rootPath, locatorClass);
+
+        // Load each asset serially to establish the expected vertex counts:
+        int numAssets = assetNames.length;
+        String[] assetPaths = new String[numAssets];
+        int[] expectedCounts = new int[numAssets];
+        for (int i = 0; i < numAssets; ++i) {
+            assetPaths[i] = group.assetPath(assetNames[i]);
+            try {
+                Spatial model = load(assetManager, assetPaths[i]);
+                expectedCounts[i] = MySpatial.countVertices(model);
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        // Load them all again, concurrently:
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<Integer>> futures = new ArrayList<>(numRounds * numAssets);
+        long startTime = System.nanoTime();
+        for (int round = 0; round < numRounds; ++round) {
+            for (int i = 0; i < numAssets; ++i) {
+                String assetPath = assetPaths[i];
+                Callable<Integer> task = () -> MySpatial.countVertices(
+                        load(assetManager, assetPath));
+                futures.add(executor.submit(task));
+            }
+        }
+
+        int result = 0;
+        for (int j = 0; j < futures.size(); ++j) {
+            int assetIndex = j % numAssets;
+            String quotedPath = MyString.quote(assetPaths[assetIndex]);
+            try {
+                int count = futures.get(j).get();
+                if (count != expectedCounts[assetIndex]) {
+                    System.out.printf("Wrong vertex count for %s: %d, not %d%n",
+                            quotedPath, count, expectedCounts[assetIndex]);
+                    ++result;
+                }
+            } catch (ExecutionException | InterruptedException exception) {
+                System.out.println("Failed to load " + quotedPath + ":");
+                exception.printStackTrace();
+                ++result;
+            }
+        }
+        executor.shutdown();
+
+        long elapsedNanos = System.nanoTime() - startTime;
+        System.out.printf("%s: %d concurrent loads on %d threads in %.3f "
+                + "sec, with %d failure%s.%n", locatorClass.getSimpleName(),
+                futures.size(), numThreads, elapsedNanos * 1e-9, result,
+                (result == 1) ? "" : "s");
+
+        return result;
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench.test;
+
+import com.github.stephengold.wrench.IndexedZipLocator;
+import com.github.stephengold.wrench.LwjglAssetKey;
+import com.github.stephengold.wrench.LwjglAssetLoader;
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.List;
+import java.util.logging.Logger;
+import jme3utilities.MySpatial;
+import jme3utilities.MyString;
+
+/**
+ * Console application to test interleaved vertex buffers: it loads several
+ * jme3-testdata assets with and without {@code setInterleaving(true)}, then
+ * verifies the offset, stride, and alignment of each interleaved attribute and
+ * compares the interleaved data, vertex by vertex, with the separate buffers.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class TestInterleaving {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * required alignment of each attribute and of the stride (in bytes)
+     */
+    final private static int alignment = 4;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(TestInterleaving.class.getName());
+    /**
+     * names of the assets to load
+     */
+    final private static String[] assetNames = {
+        "BasicCubeLow", "Box", "Duck", "Ninja", "PbrRef", "SinbadXml",
+        "TeapotObj", "TwoChairs"
+    };
+    // *************************************************************************
+    // fields
+
+    /**
+     * number of interleaved meshes verified so far
+     */
+    private static int numInterleaved = 0;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private TestInterleaving() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the TestInterleaving application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        AssetGroup group = new Jme3TestData("3.6.1-stable");
+        if (!group.isAccessible()) {
+            logger.severe("The test assets are not accessible! Quitting...");
+            return;
+        }
+
+        DesktopAssetManager assetManager = new DesktopAssetManager(true);
+        String rootPath = group.rootPath(assetNames[0]);
+        assetManager.registerLocator(rootPath, IndexedZipLocator.class);
+
+        int numFailures = 0;
+        for (String assetName : assetNames) {
+            String assetPath = group.assetPath(assetName);
+            String quotedPath = MyString.quote(assetPath);
+            try {
+                Spatial separate = load(assetManager, assetPath, false);
+                Spatial interleaved = load(assetManager, assetPath, true);
+                numFailures += compareModels(separate, interleaved, quotedPath);
+
+            } catch (IOException | RuntimeException exception) {
+                System.out.println("Failed to load " + quotedPath + ":");
+                exception.printStackTrace();
+                ++numFailures;
+            }
+        }
+
+        if (numInterleaved == 0) {
+            System.out.println("No meshes were interleaved!");
+            ++numFailures;
+        }
+        System.out.printf(
+                "Verified %d interleaved mesh%s, with %d failure%s.%n",
+                numInterleaved, (numInterleaved == 1) ? "" : "es",
+                numFailures, (numFailures == 1) ? "" : "s");
+        if (numFailures > 0) {
+            System.exit(1);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Compare one interleaved attribute with the corresponding separate
+     * buffer, vertex by vertex.
+     *
+     * @param separate the separate buffer (not null, unaffected)
+     * @param data the interleaved data (not null, unaffected)
+     * @param attribute the interleaved attribute (not null, unaffected)
+     * @param numVertices the number of vertices to compare (&ge;0)
+     * @return true if all components match, otherwise false
+     */
+    private static boolean compareAttribute(VertexBuffer separate,
+            ByteBuffer data, VertexBuffer attribute, int numVertices) {
+        Buffer expected = separate.getData();
+        int numComponents = separate.getNumComponents();
+        int bytesPerComponent = separate.getFormat().getComponentSize();
+        int offset = attribute.getOffset();
+        int stride = attribute.getStride();
+
+        boolean result = true;
+        for (int vertexI = 0; vertexI < numVertices && result; ++vertexI) {
+            for (int compI = 0; compI < numComponents; ++compI) {
+                int bytePos = vertexI * stride + offset
+                        + compI * bytesPerComponent;
+                int elementPos = vertexI * numComponents + compI;
+                boolean match;
+                if (expected instanceof FloatBuffer) {
+                    float expect = ((FloatBuffer) expected).get(elementPos);
+                    match = Float.compare(
+                            expect, data.getFloat(bytePos)) == 0;
+                } else if (expected instanceof IntBuffer) {
+                    int expect = ((IntBuffer) expected).get(elementPos);
+                    match = (expect == data.getInt(bytePos));
+                } else if (expected instanceof ShortBuffer) {
+                    short expect = ((ShortBuffer) expected).get(elementPos);
+                    match = (expect == data.getShort(bytePos));
+                } else {
+                    byte expect = ((ByteBuffer) expected).get(elementPos);
+                    match = (expect == data.get(bytePos));
+                }
+                if (!match) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compare the geometries of 2 loads of the same asset.
+     *
+     * @param separate the model loaded without interleaving (not null)
+     * @param interleaved the model loaded with interleaving (not null)
+     * @param quotedPath the quoted asset path, for messages (not null)
+     * @return the number of failures detected (&ge;0)
+     */
+    private static int compareModels(
+            Spatial separate, Spatial interleaved, String quotedPath) {
+        List<Geometry> expected = MySpatial.listGeometries(separate);
+        List<Geometry> actual = MySpatial.listGeometries(interleaved);
+        int result = 0;
+        int numGeometries = expected.size();
+        if (actual.size() != numGeometries) {
+            System.out.printf("Wrong number of geometries for %s: %d, not %d%n",
+                    quotedPath, actual.size(), numGeometries);
+            ++result;
+            numGeometries = 0; // skip the comparisons
+        }
+
+        for (int i = 0; i < numGeometries; ++i) {
+            Mesh expectedMesh = expected.get(i).getMesh();
+            Mesh actualMesh = actual.get(i).getMesh();
+            if (actualMesh.getBuffer(VertexBuffer.Type.InterleavedData)
+                    != null) {
+                String description = quotedPath + " geometry "
+                        + MyString.quote(actual.get(i).getName());
+                result += verifyMesh(expectedMesh, actualMesh, description);
+                ++numInterleaved;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Load the specified asset using LwjglAssetLoader, bypassing the
+     * AssetManager's cache.
+     *
+     * @param assetManager the AssetManager to use (not null)
+     * @param assetPath the path to the asset (not null)
+     * @param interleave true to interleave vertex buffers, otherwise false
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if the asset cannot be loaded
+     */
+    private static Spatial load(DesktopAssetManager assetManager,
+            String assetPath, boolean interleave) throws IOException {
+        LwjglAssetKey key = new LwjglAssetKey(assetPath);
+        key.setInterleaving(interleave);
+        AssetInfo info = assetManager.locateAsset(key);
+        if (info == null) {
+            throw new IOException(
+                    "Can't locate asset " + MyString.quote(assetPath));
+        }
+
+        LwjglAssetLoader loader = new LwjglAssetLoader();
+        Spatial result = (Spatial) loader.load(info);
+
+        return result;
+    }
+
+    /**
+     * Verify the layout and content of an interleaved mesh against the same
+     * mesh loaded without interleaving.
+     *
+     * @param expected the mesh loaded without interleaving (not null,
+     * unaffected)
+     * @param actual the interleaved mesh (not null, unaffected)
+     * @param description a description of the mesh, for messages (not null)
+     * @return the number of failures detected (&ge;0)
+     */
+    private static int verifyMesh(Mesh expected, Mesh actual,
+            String description) {
+        ByteBuffer data = (ByteBuffer) actual
+                .getBuffer(VertexBuffer.Type.InterleavedData).getData();
+        data = data.duplicate().order(ByteOrder.nativeOrder());
+        int numVertices = actual.getVertexCount();
+
+        int result = 0;
+        int stride = -1;
+        long usedBytes = 0L; // bitmask of the bytes used in a vertex
+        for (VertexBuffer attribute : actual.getBufferList()) {
+            VertexBuffer.Type type = attribute.getBufferType();
+            if (type == VertexBuffer.Type.Index
+                    || type == VertexBuffer.Type.InterleavedData) {
+                continue;
+            }
+            String what = description + " " + type;
+            if (attribute.getStride() == 0) {
+                System.out.println("Not interleaved: " + what);
+                ++result;
+                continue;
+            }
+
+            // Check the stride and offset:
+            if (stride == -1) {
+                stride = attribute.getStride();
+                if (stride % alignment != 0 || stride > 64
+                        || data.capacity() != stride * numVertices) {
+                    System.out.printf("Bad stride for %s: %d%n", what, stride);
+                    ++result;
+                }
+            } else if (attribute.getStride() != stride) {
+                System.out.printf("Inconsistent stride for %s: %d, not %d%n",
+                        what, attribute.getStride(), stride);
+                ++result;
+            }
+            int offset = attribute.getOffset();
+            int numBytes = attribute.getNumComponents()
+                    * attribute.getFormat().getComponentSize();
+            long mask = ((1L << numBytes) - 1L) << offset;
+            if (offset % alignment != 0 || offset + numBytes > stride
+                    || (usedBytes & mask) != 0L) {
+                System.out.printf("Bad offset for %s: %d%n", what, offset);
+                ++result;
+            }
+            usedBytes |= mask;
+
+            // Only positions should retain their data:
+            boolean hasData = (attribute.getData() != null);
+            if (hasData != (type == VertexBuffer.Type.Position)) {
+                System.out.printf("Unexpected data retention for %s%n", what);
+                ++result;
+            }
+
+            // Compare the interleaved data with the separate buffer:
+            VertexBuffer separate = expected.getBuffer(type);
+            if (separate == null || separate.getFormat()
+                    != attribute.getFormat()) {
+                System.out.println("No matching separate buffer for " + what);
+                ++result;
+            } else if (!compareAttribute(
+                    separate, data, attribute, numVertices)) {
+                System.out.println("Data mismatch for " + what);
+                ++result;
+            }
+        }
+
+        return result;
+    }
+}
@@ -59,8 +59,17 @@ import java.nio.DoubleBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jme3utilities.MyMesh;
@@ -70,6 +79,7 @@ import jme3utilities.Validate;
 import jme3utilities.wes.TransformTrackBuilder;
 import org.lwjgl.PointerBuffer;
 import org.lwjgl.assimp.AIAnimation;
+import org.lwjgl.assimp.AIBone;
 import org.lwjgl.assimp.AICamera;
 import org.lwjgl.assimp.AILight;
 import org.lwjgl.assimp.AIMaterial;
@@ -114,6 +124,10 @@ class AssetBuilder {
      * true if the loaded asset has Z-up orientation, otherwise false
      */
     private boolean zUp;
+    /**
+     * test whether the load has been cancelled
+     */
+    private BooleanSupplier cancelCheck = () -> false;
     /**
      * constructed Geometry for each AIMesh
      */
@@ -126,6 +140,10 @@ class AssetBuilder {
      * key used to load the main asset
      */
     final private LwjglAssetKey mainKey;
+    /**
+     * map the indices of split meshes to their submesh geometries
+     */
+    final private Map<Integer, List<Geometry>> splitMap = new TreeMap<>();
     /**
      * where animation controls will be added
      */
@@ -214,6 +232,7 @@ class AssetBuilder {
         this.skinner = skinnerBuilder.buildAndAddTo(controlledNode);
 
         // Build and add the AnimComposer:
+        checkCancelled();
         PointerBuffer pAnimations = aiScene.mAnimations();
         addAnimComposer(numAnimations, pAnimations);
 
@@ -265,7 +284,9 @@ class AssetBuilder {
         }
 
         // Convert each AIMesh to a Geometry:
+        checkCancelled();
         convertMeshes();
+        checkCancelled();
 
         AINode aiRoot = aiScene.mRootNode();
         if (mainKey.isVerboseLogging()) {
@@ -287,6 +308,7 @@ class AssetBuilder {
          */
         int numAnimations = aiScene.mNumAnimations();
         if (numAnimations > 0) {
+            checkCancelled();
             PointerBuffer pAnimations = aiScene.mAnimations();
             addAnimComposer(numAnimations, pAnimations);
 
@@ -324,24 +346,45 @@ class AssetBuilder {
     }
 
     /**
-     * Convert all materials in the AIScene to builders.
+     * Abandon the conversion if the load has been cancelled. Invoked between
+     * stages, since the stages themselves can't be interrupted.
+     *
+     * @throws CancellationException if the load has been cancelled
+     */
+    void checkCancelled() {
+        if (cancelCheck.getAsBoolean()) {
+            throw new CancellationException("The load was cancelled.");
+        }
+    }
+
+    /**
+     * Convert all materials in the AIScene to builders, then preload the
+     * external textures they reference.
      *
      * @param assetManager for loading textures (not null)
-     * @param embeddedTextures the array of embedded textures (not null)
+     * @param embeddedTextures the embedded textures (not null)
      * @throws IOException if the materials cannot be converted
      */
-    void convertMaterials(AssetManager assetManager, Texture[] embeddedTextures)
-            throws IOException {
+    void convertMaterials(AssetManager assetManager,
+            EmbeddedTextures embeddedTextures) throws IOException {
         PointerBuffer pMaterials = aiScene.mMaterials();
+        Map<String, Texture> externalTextures = new TreeMap<>();
+        Set<String> texturePaths = new TreeSet<>();
 
         int numMaterials = aiScene.mNumMaterials();
         for (int i = 0; i < numMaterials; ++i) {
             long handle = pMaterials.get(i);
             AIMaterial aiMaterial = AIMaterial.createSafe(handle);
-            MaterialBuilder builder = new MaterialBuilder(
-                    aiMaterial, i, assetManager, mainKey, embeddedTextures);
+            MaterialBuilder builder = new MaterialBuilder(aiMaterial, i,
+                    assetManager, mainKey, embeddedTextures, externalTextures);
+            builder.listExternalTextures(texturePaths);
             builderList.add(builder);
         }
+
+        if (texturePaths.size() > 1) {
+            checkCancelled();
+            preloadTextures(texturePaths, assetManager, externalTextures);
+        }
     }
 
     /**
@@ -361,6 +404,16 @@ class AssetBuilder {
     boolean isZUp() {
         return zUp;
     }
+
+    /**
+     * Specify how to test whether the load has been cancelled.
+     *
+     * @param cancelCheck the desired test (not null, alias created)
+     */
+    void setCancelCheck(BooleanSupplier cancelCheck) {
+        assert cancelCheck != null;
+        this.cancelCheck = cancelCheck;
+    }
     // *************************************************************************
     // private methods
 
@@ -478,6 +531,29 @@ class AssetBuilder {
         }
     }
 
+    /**
+     * Assign a joint ID to every bone referenced by the meshes, in the same
+     * order that serial mesh conversion would assign them, so that meshes can
+     * then be converted concurrently without modifying the SkinnerBuilder.
+     *
+     * @param pMeshes pointers to the meshes (not null, unaffected)
+     * @param numMeshes the number of meshes (&ge;0)
+     */
+    private void assignJointIds(PointerBuffer pMeshes, int numMeshes) {
+        for (int meshIndex = 0; meshIndex < numMeshes; ++meshIndex) {
+            long handle = pMeshes.get(meshIndex);
+            AIMesh aiMesh = AIMesh.createSafe(handle);
+            int numBones = aiMesh.mNumBones();
+            PointerBuffer pBones = aiMesh.mBones();
+            for (int boneIndex = 0; boneIndex < numBones; ++boneIndex) {
+                long address = pBones.get(boneIndex);
+                AIBone aiBone = AIBone.createSafe(address);
+                String boneName = aiBone.mName().dataString();
+                skinnerBuilder.jointId(boneName);
+            }
+        }
+    }
+
     /**
      * Convert the specified AIAnimation to a JMonkeyEngine animation clip.
      *
@@ -570,26 +646,88 @@ class AssetBuilder {
         return result;
     }
 
+    /**
+     * Convert the specified Assimp mesh into a JMonkeyEngine geometry, without
+     * a material. Joint IDs must already be assigned. May be invoked from any
+     * thread.
+     *
+     * @param aiMesh the mesh to convert (not null, unaffected)
+     * @param meshIndex the index of the mesh in the AIScene (&ge;0)
+     * @return a new geometry (not null)
+     * @throws IOException if the mesh cannot be converted
+     */
+    private Geometry convertMesh(AIMesh aiMesh, int meshIndex)
+            throws IOException {
+        MeshBuilder meshBuilder = new MeshBuilder(aiMesh, meshIndex);
+        String name = meshBuilder.getName();
+        Mesh jmeMesh = meshBuilder.createJmeMesh(skinnerBuilder);
+        if (mainKey.isOptimizingVertexCache()
+                && VertexCacheOptimizer.canOptimize(jmeMesh)) {
+            Level logLevel = mainKey.isVerboseLogging()
+                    ? Level.INFO : Level.FINE;
+            String qName = MyString.quote(name);
+            VertexCacheOptimizer.optimize(jmeMesh, qName, logLevel);
+        }
+        Geometry result = new Geometry(name, jmeMesh);
+
+        float[] state = meshBuilder.getInitialMorphState();
+        result.setMorphState(state);
+
+        return result;
+    }
+
     /**
      * Convert the specified Assimp meshes into JMonkeyEngine geometries.
+     * <p>
+     * The meshes are independent of one another, so they're converted
+     * concurrently using the common fork-join pool. Materials are then
+     * built and applied serially, in mesh order, since material builders are
+     * shared between meshes.
+     *
+     * @throws IOException if a mesh cannot be converted
      */
     private void convertMeshes() throws IOException {
         assert skinnerBuilder != null;
 
         int numMeshes = aiScene.mNumMeshes();
         PointerBuffer pMeshes = aiScene.mMeshes();
+        AIMesh[] aiMeshes = new AIMesh[numMeshes];
         for (int meshIndex = 0; meshIndex < numMeshes; ++meshIndex) {
             long handle = pMeshes.get(meshIndex);
-            AIMesh aiMesh = AIMesh.createSafe(handle);
-            MeshBuilder meshBuilder = new MeshBuilder(aiMesh, meshIndex);
+            aiMeshes[meshIndex] = AIMesh.createSafe(handle);
+        }
+
+        if (numMeshes > 1) {
+            assignJointIds(pMeshes, numMeshes);
+
+            // Convert the meshes concurrently:
+            List<ForkJoinTask<Geometry>> tasks = new ArrayList<>(numMeshes);
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            for (int meshIndex = 0; meshIndex < numMeshes; ++meshIndex) {
+                AIMesh aiMesh = aiMeshes[meshIndex];
+                int index = meshIndex;
+                tasks.add(pool.submit(() -> convertMesh(aiMesh, index)));
+            }
+            /*
+             * Wait for every task to finish before examining the results,
+             * so that none is still reading the AIScene if one fails:
+             */
+            for (ForkJoinTask<Geometry> task : tasks) {
+                task.quietlyJoin();
+            }
+            for (int meshIndex = 0; meshIndex < numMeshes; ++meshIndex) {
+                this.geometryArray[meshIndex] = join(tasks.get(meshIndex));
+            }
 
-            String name = meshBuilder.getName();
-            Mesh jmeMesh = meshBuilder.createJmeMesh(skinnerBuilder);
-            Geometry geometry = new Geometry(name, jmeMesh);
-            this.geometryArray[meshIndex] = geometry;
+        } else if (numMeshes == 1) {
+            this.geometryArray[0] = convertMesh(aiMeshes[0], 0);
+        }
 
-            float[] state = meshBuilder.getInitialMorphState();
-            geometry.setMorphState(state);
+        for (int meshIndex = 0; meshIndex < numMeshes; ++meshIndex) {
+            AIMesh aiMesh = aiMeshes[meshIndex];
+            Geometry geometry = geometryArray[meshIndex];
+            String name = geometry.getName();
+            Mesh jmeMesh = geometry.getMesh();
 
             // Build and apply the material:
             int materialIndex = aiMesh.mMaterialIndex();
@@ -620,6 +758,19 @@ class AssetBuilder {
             if (blendMode == RenderState.BlendMode.Alpha) {
                 geometry.setQueueBucket(RenderQueue.Bucket.Transparent);
             }
+
+            if (mainKey.isCompactingVertices()) {
+                Level logLevel = mainKey.isVerboseLogging()
+                        ? Level.INFO : Level.FINE;
+                String qName = MyString.quote(geometry.getName());
+                VertexCompactor.compact(geometry.getMesh(), qName, logLevel);
+            }
+            if (mainKey.isSplittingMeshes()) {
+                splitGeometry(meshIndex);
+            }
+            if (mainKey.isInterleaving()) {
+                interleaveGeometry(meshIndex);
+            }
         }
     }
 
@@ -788,8 +939,15 @@ class AssetBuilder {
             IntBuffer pMeshIndices = aiNode.mMeshes();
             for (int i = 0; i < numMeshesInNode; ++i) {
                 int meshId = pMeshIndices.get(i);
-                Geometry geometry = geometryArray[meshId].clone();
-                result.attachChild(geometry);
+                List<Geometry> parts = splitMap.get(meshId);
+                if (parts == null) {
+                    Geometry geometry = geometryArray[meshId].clone();
+                    result.attachChild(geometry);
+                } else {
+                    for (Geometry part : parts) {
+                        result.attachChild(part.clone());
+                    }
+                }
             }
         }
 
@@ -927,6 +1085,102 @@ class AssetBuilder {
         return result;
     }
 
+    /**
+     * Interleave the vertex buffers of the indexed geometry, or of its
+     * submeshes if it was split.
+     *
+     * @param meshIndex the index of the geometry in the AIScene (&ge;0)
+     */
+    private void interleaveGeometry(int meshIndex) {
+        List<Geometry> geometries = splitMap.get(meshIndex);
+        if (geometries == null) {
+            geometries = Arrays.asList(geometryArray[meshIndex]);
+        }
+
+        for (Geometry geometry : geometries) {
+            Mesh jmeMesh = geometry.getMesh();
+            if (VertexInterleaver.canInterleave(jmeMesh)) {
+                int stride = VertexInterleaver.interleave(jmeMesh);
+                if (mainKey.isVerboseLogging()) {
+                    logger.log(Level.INFO, "Interleaved mesh {0} with a "
+                            + "stride of {1} bytes.", new Object[]{
+                                MyString.quote(geometry.getName()), stride
+                            });
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtain the result of a completed mesh-conversion task.
+     *
+     * @param task the task to query (not null, completed)
+     * @return the converted geometry (not null)
+     * @throws IOException if the conversion failed
+     */
+    private static Geometry join(ForkJoinTask<Geometry> task)
+            throws IOException {
+        Geometry result;
+        try {
+            result = task.get();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during mesh conversion.");
+        }
+
+        return result;
+    }
+
+    /**
+     * Load the specified external textures concurrently, using the common
+     * fork-join pool, so that each is located and decoded exactly once before
+     * the materials are built.
+     * <p>
+     * A texture that fails to load is omitted from the results, leaving the
+     * MaterialBuilder to retry it (and report any failure) if it's needed.
+     *
+     * @param texturePaths the raw asset paths of the textures (not null,
+     * unaffected)
+     * @param assetManager for loading textures (not null)
+     * @param storeResult storage for the loaded textures (not null, added to)
+     */
+    private void preloadTextures(Collection<String> texturePaths,
+            AssetManager assetManager, Map<String, Texture> storeResult) {
+        TextureLoader textureLoader = mainKey.getTextureLoader();
+        int postFlags = mainKey.flags();
+        boolean flipY = (postFlags & Assimp.aiProcess_FlipUVs) == 0x0;
+
+        Map<String, ForkJoinTask<Texture>> taskMap = new TreeMap<>();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (String path : texturePaths) {
+            ForkJoinTask<Texture> task = pool.submit(() -> textureLoader.load(
+                    path, mainKey, flipY, assetManager));
+            taskMap.put(path, task);
+        }
+
+        for (Map.Entry<String, ForkJoinTask<Texture>> entry
+                : taskMap.entrySet()) {
+            ForkJoinTask<Texture> task = entry.getValue();
+            task.quietlyJoin();
+            if (task.isCompletedNormally()) {
+                String path = entry.getKey();
+                Texture texture = task.getRawResult();
+                storeResult.put(path, texture);
+            }
+        }
+    }
+
     /**
      * Process the flags and metadata of the AIScene.
      *
@@ -988,4 +1242,41 @@ class AssetBuilder {
             }
         }
     }
+
+    /**
+     * Split the indexed geometry if its mesh has too many vertices for 16-bit
+     * indices. The submesh geometries share the material and queue bucket of
+     * the original.
+     *
+     * @param meshIndex the index of the geometry in the AIScene (&ge;0)
+     */
+    private void splitGeometry(int meshIndex) {
+        Geometry geometry = geometryArray[meshIndex];
+        Mesh jmeMesh = geometry.getMesh();
+        int vertexCount = jmeMesh.getVertexCount();
+        if (vertexCount > MeshSplitter.maxShortVertices
+                && MeshSplitter.canSplit(jmeMesh)) {
+            int maxVertices = MeshSplitter.maxShortVertices;
+            List<Mesh> meshes = MeshSplitter.split(jmeMesh, maxVertices);
+            int numParts = meshes.size();
+            List<Geometry> parts = new ArrayList<>(numParts);
+            String name = geometry.getName();
+            for (int partIndex = 0; partIndex < numParts; ++partIndex) {
+                Mesh partMesh = meshes.get(partIndex);
+                String partName = name + " part " + partIndex;
+                Geometry part = new Geometry(partName, partMesh);
+                part.setMaterial(geometry.getMaterial());
+                part.setQueueBucket(geometry.getLocalQueueBucket());
+                parts.add(part);
+            }
+            splitMap.put(meshIndex, parts);
+
+            if (mainKey.isVerboseLogging()) {
+                logger.log(Level.INFO, "Split mesh {0} with {1} vertices "
+                        + "into {2} submeshes.", new Object[]{
+                            MyString.quote(name), vertexCount, numParts
+                        });
+            }
+        }
+    }
 }
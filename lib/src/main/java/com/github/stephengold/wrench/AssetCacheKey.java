@@ -0,0 +1,125 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetManager;
+import java.lang.ref.WeakReference;
+
+/**
+ * Identify an asset in a process-wide cache without preventing garbage
+ * collection of the AssetManager that located it. Immutable.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class AssetCacheKey {
+    // *************************************************************************
+    // fields
+
+    /**
+     * hash code of the AssetManager's identity
+     */
+    final private int managerHash;
+    /**
+     * the asset path
+     */
+    final private String assetPath;
+    /**
+     * weak reference to the AssetManager that located the asset
+     */
+    final private WeakReference<AssetManager> managerRef;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a key for the specified asset.
+     *
+     * @param assetManager the AssetManager that located the asset (not null)
+     * @param assetPath the asset path (not null)
+     */
+    AssetCacheKey(AssetManager assetManager, String assetPath) {
+        assert assetManager != null;
+        assert assetPath != null;
+
+        this.managerHash = System.identityHashCode(assetManager);
+        this.managerRef = new WeakReference<>(assetManager);
+        this.assetPath = assetPath;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Return the asset path.
+     *
+     * @return the path (not null)
+     */
+    String assetPath() {
+        return assetPath;
+    }
+    // *************************************************************************
+    // Object methods
+
+    /**
+     * Test for equivalence with another Object. Keys whose AssetManager has
+     * been garbage collected are equivalent only to themselves.
+     *
+     * @param other the object to compare to (may be null, unaffected)
+     * @return true if the objects are equivalent, otherwise false
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean result;
+        if (other == this) {
+            result = true;
+        } else if (other == null || getClass() != other.getClass()) {
+            result = false;
+        } else {
+            AssetCacheKey otherKey = (AssetCacheKey) other;
+            AssetManager manager = managerRef.get();
+            result = (manager != null)
+                    && (manager == otherKey.managerRef.get())
+                    && assetPath.equals(otherKey.assetPath);
+        }
+
+        return result;
+    }
+
+    /**
+     * Generate the hash code for the key.
+     *
+     * @return a 32-bit value for use in hashing
+     */
+    @Override
+    public int hashCode() {
+        int result = 5;
+        result = 31 * result + managerHash;
+        result = 31 * result + assetPath.hashCode();
+
+        return result;
+    }
+}
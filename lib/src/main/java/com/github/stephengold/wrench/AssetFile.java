@@ -30,15 +30,36 @@ package com.github.stephengold.wrench;
 
 import com.jme3.asset.AssetInfo;
 import com.jme3.asset.AssetLoadException;
+import com.jme3.util.BufferUtils;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
 import org.lwjgl.assimp.AIFile;
+import org.lwjgl.assimp.AIFileReadProc;
+import org.lwjgl.assimp.AIFileSeek;
+import org.lwjgl.assimp.AIFileTellProc;
 import org.lwjgl.assimp.Assimp;
 import org.lwjgl.system.MemoryUtil;
 
 /**
  * A file in an AssetFileSystem that's been opened for reading.
+ * <p>
+ * The content of the file is always held outside the Java heap, so that reads
+ * can be serviced with bulk copies and without allocating any Java objects.
+ * Usually the entire content is held, either in a direct buffer or in a
+ * memory-mapped file. A very large file is instead streamed through a
+ * fixed-size window, which is re-filled from the asset whenever a read falls
+ * outside it. A streamed asset that's gzip-compressed is decompressed on the
+ * fly.
  *
  * @author Stephen Gold sgold@sonic.net
  */
@@ -47,9 +68,32 @@ class AssetFile {
     // constants and loggers
 
     /**
-     * size of the arrays for reading input streams (in bytes)
+     * initial size of the content buffer when the stream provides no size
+     * hint (in bytes)
      */
-    final private static int readArrayNumBytes = 4096;
+    final private static int defaultNumBytes = 4096;
+    /**
+     * size of the buffer used to decompress gzip streams (in bytes)
+     */
+    final private static int gzipBufferNumBytes = 1 << 16;
+    /**
+     * assumed ratio of uncompressed to compressed size, for size hints
+     */
+    final private static int gzipExpansionHint = 4;
+    /**
+     * size of the window used to stream a large file (in bytes)
+     */
+    final private static int windowNumBytes = 1 << 22;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(AssetFile.class.getName());
+    /**
+     * all open files in the process, indexed by the slot stored in each
+     * AIFile's user data
+     */
+    final private static SlotTable<AssetFile> openFiles = new SlotTable<>();
     // *************************************************************************
     // fields
 
@@ -58,106 +102,251 @@ class AssetFile {
      */
     private AIFile aiFile;
     /**
-     * entire content of the file (never modified)
+     * shared callback to read from any open file, or null if not yet created
      */
-    final private byte[] contentArray;
+    private static AIFileReadProc readProc;
     /**
-     * wrap the content and keep track of the read position
+     * shared callback to alter the read position of any open file, or null if
+     * not yet created
      */
-    final private ByteBuffer contents;
+    private static AIFileSeek seekProc;
     /**
-     * reusable array for each thread
+     * shared callback to return the size of any open file, or null if not yet
+     * created
      */
-    final private static ThreadLocal<byte[]> readArrays
-            = new ThreadLocal<byte[]>() {
-        @Override
-        protected byte[] initialValue() {
-            return new byte[readArrayNumBytes];
-        }
-    };
+    private static AIFileTellProc sizeProc;
+    /**
+     * shared callback to return the read position of any open file, or null if
+     * not yet created
+     */
+    private static AIFileTellProc tellProc;
+    /**
+     * asset from which the window is re-filled, or null if the entire content
+     * is held in memory
+     */
+    final private AssetInfo streamInfo;
+    /**
+     * true to measure the time spent in callbacks, otherwise false
+     */
+    final private boolean isTimed;
+    /**
+     * content of the file starting at {@code windowStart}: either a direct
+     * buffer or else a memory-mapped file (position=0, limit=number of valid
+     * bytes)
+     */
+    final private ByteBuffer window;
+    /**
+     * channel for positional reads from a streamed local file, or null if none
+     */
+    private FileChannel fileChannel;
+    /**
+     * stream from which the window is re-filled, or null if not open
+     */
+    private InputStream stream;
+    /**
+     * index of this file in the table of open files
+     */
+    final private int slot;
+    /**
+     * time spent in callbacks (in nanoseconds, if timed)
+     */
+    private long callbackNanos = 0L;
+    /**
+     * number of content bytes delivered by read callbacks
+     */
+    private long numBytesRead = 0L;
+    /**
+     * number of read callbacks
+     */
+    private long numReads = 0L;
+    /**
+     * number of seek callbacks
+     */
+    private long numSeeks = 0L;
+    /**
+     * number of tell and size callbacks
+     */
+    private long numTells = 0L;
+    /**
+     * read position (in bytes from the start of the file, &ge;0)
+     */
+    private long position = 0L;
+    /**
+     * size of the file (in bytes, &ge;0)
+     */
+    final private long size;
+    /**
+     * position of {@code stream} (in bytes from the start of the file, &ge;0)
+     */
+    private long streamPosition = 0L;
+    /**
+     * native address of the first byte in the window (not zero)
+     */
+    final private long windowAddress;
+    /**
+     * offset of the window's first byte (in bytes from the start of the file,
+     * &ge;0)
+     */
+    private long windowStart = 0L;
     // *************************************************************************
     // constructors
 
     /**
-     * Instantiate a file and open it for reading.
+     * Instantiate a file whose entire content is held in memory, and open it
+     * for reading.
      *
-     * @param fileSystem the filesystem that will contain this file (not null,
-     * alias created)
-     * @param assetInfo the asset to read (not null)
-     * @param contentArray cached file content (alias created) or null if the
-     * content hasn't been read yet
-     */
-    AssetFile(AssetFileSystem fileSystem, AssetInfo assetInfo,
-            byte[] contentArray) {
-        if (contentArray == null) {
-            int numBytes = countBytes(assetInfo);
-
-            // Read the content of the file:
-            contentArray = new byte[numBytes];
-            this.contents = getContents(assetInfo, contentArray);
-
-        } else { // Simply wrap the cached content:
-            this.contents = ByteBuffer.wrap(contentArray);
-        }
-        this.contentArray = contentArray;
-
-        // Configure some callbacks for lwjgl-assimp:
-        this.aiFile = AIFile.calloc();
-
-        aiFile.FileSizeProc((long fileHandle) -> {
-            AssetFile file = fileSystem.findFile(fileHandle);
-            long result = file.size();
-            return result;
-        });
-
-        aiFile.ReadProc((long fileHandle, long destAddress, long bytesPerRecord,
-                long recordCount) -> {
-            long byteCount = bytesPerRecord * recordCount;
-            assert byteCount >= 0L : byteCount;
-            assert byteCount <= Integer.MAX_VALUE : byteCount;
-
-            ByteBuffer targetBuffer = MemoryUtil.memByteBufferSafe(
-                    destAddress, (int) byteCount);
-
-            AssetFile file = fileSystem.findFile(fileHandle);
-            long result = file.read(targetBuffer, bytesPerRecord, recordCount);
+     * @param content the entire content of the file (not null, unaffected,
+     * direct, do not modify the content)
+     * @param isTimed true to measure the time spent in callbacks, otherwise
+     * false
+     */
+    AssetFile(ByteBuffer content, boolean isTimed) {
+        this(content.duplicate(), content.capacity(), null, isTimed);
+    }
 
-            return result;
-        });
+    /**
+     * Instantiate a file that's streamed from the specified asset, and open it
+     * for reading. The asset isn't accessed until the first read.
+     *
+     * @param info the asset to stream (not null, alias created)
+     * @param size the size of the asset (in bytes, &ge;0)
+     * @param isTimed true to measure the time spent in callbacks, otherwise
+     * false
+     */
+    AssetFile(AssetInfo info, long size, boolean isTimed) {
+        this(BufferUtils.createByteBuffer(windowNumBytes), size, info,
+                isTimed);
+        window.limit(0); // the window is initially empty
+    }
 
-        aiFile.SeekProc((long fileHandle, long offset, int origin) -> {
-            AssetFile file = fileSystem.findFile(fileHandle);
-            file.seek(offset, origin);
-            return Assimp.aiReturn_SUCCESS;
-        });
+    /**
+     * Instantiate a file with the specified window and open it for reading.
+     *
+     * @param window the initial window (not null, direct, alias created)
+     * @param size the size of the file (in bytes, &ge;0)
+     * @param streamInfo the asset to stream, or null if the window holds the
+     * entire content
+     * @param isTimed true to measure the time spent in callbacks, otherwise
+     * false
+     */
+    private AssetFile(ByteBuffer window, long size, AssetInfo streamInfo,
+            boolean isTimed) {
+        assert window.isDirect();
+        assert size >= 0L : size;
+
+        this.isTimed = isTimed;
+        this.size = size;
+        this.streamInfo = streamInfo;
+        this.window = window;
+        window.rewind();
+        this.windowAddress = MemoryUtil.memAddress(window);
+
+        // Configure the shared callbacks for lwjgl-assimp:
+        this.aiFile = AIFile.calloc();
+        configureCallbacks(aiFile);
 
-        aiFile.TellProc((long fileHandle) -> {
-            AssetFile file = fileSystem.findFile(fileHandle);
-            long result = file.tell();
-            return result;
-        });
+        // Store the slot so the callbacks can locate this file in O(1) time:
+        this.slot = openFiles.add(this);
+        aiFile.UserData(slot);
     }
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Add this file's counts and timings to the specified statistics.
+     *
+     * @param statistics the statistics to update (not null, modified)
+     */
+    void addStatisticsTo(ImportStatistics statistics) {
+        statistics.addFile(
+                numReads, numSeeks, numTells, numBytesRead, callbackNanos);
+    }
+
     /**
      * Invoked when the file is no longer needed, to free its resources.
      */
     void destroy() {
         if (aiFile != null) {
+            openFiles.remove(slot);
             aiFile.free();
             this.aiFile = null;
         }
+        closeStream();
+    }
+
+    /**
+     * Access an open file via its handle, without any map lookup.
+     *
+     * @param fileHandle the handle of an {@code AIFile} created by this class
+     * @return the pre-existing instance, or null if none
+     */
+    static AssetFile find(long fileHandle) {
+        int slot = slot(fileHandle);
+        AssetFile result = openFiles.get(slot);
+
+        assert result == null || result.handle() == fileHandle;
+        return result;
+    }
+
+    /**
+     * Free the shared callbacks. They will be re-created if needed.
+     *
+     * @throws IllegalStateException if any files are open
+     */
+    static synchronized void freeCallbacks() {
+        if (!openFiles.isEmpty()) {
+            throw new IllegalStateException(
+                    "Can't free the callbacks while files are open.");
+        }
+
+        if (readProc != null) {
+            readProc.free();
+            seekProc.free();
+            sizeProc.free();
+            tellProc.free();
+
+            readProc = null;
+            seekProc = null;
+            sizeProc = null;
+            tellProc = null;
+        }
     }
 
     /**
-     * Access the content of the file for caching purposes.
+     * Decompress the specified gzip-compressed content, unless the result
+     * would exceed the specified size.
      *
-     * @return the pre-existing instance (not null, do not modify)
+     * @param compressed the compressed content (not null, unaffected, do not
+     * modify the content)
+     * @param maxBytes the maximum number of bytes to produce (&ge;0)
+     * @return a new direct buffer whose capacity equals the size of the
+     * decompressed content, or null if it's larger than {@code maxBytes} or 2
+     * GiB
      */
-    byte[] getContentArray() {
-        assert contentArray != null;
-        return contentArray;
+    static ByteBuffer gunzip(ByteBuffer compressed, long maxBytes) {
+        assert maxBytes >= 0L : maxBytes;
+        int maxCapacity = (int) Math.min(maxBytes, Integer.MAX_VALUE);
+
+        // The gzip trailer ends with the uncompressed size, modulo 2^32:
+        int sizeHint = 0;
+        int numCompressed = compressed.capacity();
+        if (numCompressed >= 18) {
+            ByteBuffer trailer = compressed.duplicate();
+            trailer.order(ByteOrder.LITTLE_ENDIAN);
+            sizeHint = trailer.getInt(numCompressed - 4);
+        }
+
+        ByteBuffer result;
+        try (InputStream inputStream = new GZIPInputStream(
+                new BufferInputStream(compressed), gzipBufferNumBytes)) {
+            result = readStream(inputStream, sizeHint, maxCapacity);
+
+        } catch (IOException exception) {
+            throw new AssetLoadException(
+                    "Failed to decompress asset contents.", exception);
+        }
+
+        return result;
     }
 
     /**
@@ -169,101 +358,483 @@ class AssetFile {
         long result = aiFile.address();
         return result;
     }
-    // *************************************************************************
-    // private methods
 
     /**
-     * Return the size of the specified binary asset.
+     * Test whether the specified content is gzip-compressed.
      *
-     * @param info the asset to read (not null)
-     * @return the size (in bytes, &ge;0)
+     * @param content the content to test (not null, unaffected)
+     * @return true if it begins with the gzip signature, otherwise false
      */
-    private static int countBytes(AssetInfo info) {
-        int totalBytes = 0;
-        byte[] tmpArray = readArrays.get();
-        try (InputStream inputStream = info.openStream()) {
-            while (true) {
-                int numBytesRead = inputStream.read(tmpArray);
-                if (numBytesRead < 0) {
-                    break;
-                }
-                totalBytes += numBytesRead;
+    static boolean isGzip(ByteBuffer content) {
+        boolean result = content.capacity() >= 2
+                && content.get(0) == (byte) 0x1f
+                && content.get(1) == (byte) 0x8b;
+        return result;
+    }
+
+    /**
+     * Test whether the specified content was memory-mapped by
+     * {@link #readContents(com.jme3.asset.AssetInfo, long)}.
+     * <p>
+     * Every mapping is created read-only, whereas content that's read into
+     * memory is always writable, so a read-only direct buffer indicates a
+     * mapping.
+     *
+     * @param content the content to test (not null, unaffected)
+     * @return true if mapped, otherwise false
+     */
+    static boolean isMapped(ByteBuffer content) {
+        boolean result = content.isDirect() && content.isReadOnly();
+        return result;
+    }
+
+    /**
+     * Measure the size of the specified asset without retaining its content.
+     * <p>
+     * If the asset resolves to an uncompressed local file or zip entry, the
+     * size is obtained from its directory. Otherwise the asset's stream is
+     * skipped to its end, decompressing it if it's gzip-compressed.
+     *
+     * @param info the asset to measure (not null)
+     * @return the (uncompressed) size (in bytes, &ge;0)
+     */
+    static long measure(AssetInfo info) {
+        long result;
+        try (InputStream inputStream = openDecoded(info)) {
+            if (inputStream instanceof FileInputStream) {
+                FileInputStream fileStream = (FileInputStream) inputStream;
+                result = fileStream.getChannel().size();
+            } else if (info instanceof ZipEntryInfo
+                    && !(inputStream instanceof GZIPInputStream)) {
+                result = ((ZipEntryInfo) info).size();
+            } else {
+                result = skipToEnd(inputStream);
             }
 
         } catch (IOException exception) {
             throw new AssetLoadException(
-                    "Failed to determine size of asset.", exception);
+                    "Failed to measure asset contents.", exception);
+        }
+
+        return result;
+    }
+
+    /**
+     * Estimate the (uncompressed) size of the specified asset without reading
+     * its content. Sizes are available for local files and indexed zip
+     * entries; the size of an asset whose name ends in ".gz" is scaled by a
+     * fixed factor.
+     *
+     * @param info the asset to estimate (not null)
+     * @return the estimated size (in bytes, &ge;0), or -1 if no cheap estimate
+     * is available
+     */
+    static long sizeHint(AssetInfo info) {
+        long result = -1L;
+        if (info instanceof ZipEntryInfo) {
+            result = ((ZipEntryInfo) info).size();
+
+        } else {
+            try (InputStream inputStream = info.openStream()) {
+                if (inputStream instanceof FileInputStream) {
+                    FileInputStream fileStream = (FileInputStream) inputStream;
+                    result = fileStream.getChannel().size();
+                }
+            } catch (IOException exception) {
+                result = -1L;
+            }
+        }
+
+        String assetPath = info.getKey().getName();
+        if (result > 0L && assetPath.endsWith(".gz")) {
+            result *= gzipExpansionHint;
         }
 
-        return totalBytes;
+        return result;
     }
 
     /**
-     * Read the entire contents of the specified asset to a new buffer.
+     * Read the entire content of the specified asset.
+     * <p>
+     * If the asset resolves to a local file, the file is mapped into memory
+     * instead of being copied.
      *
      * @param info the asset to read (not null)
-     * @param contentArray storage for file content (not null)
-     * @return a new flipped buffer that wraps {@code contentArray}
+     * @return a new direct buffer whose capacity equals the size of the asset
+     * (not null)
+     */
+    static ByteBuffer readContents(AssetInfo info) {
+        ByteBuffer result = readContents(info, Integer.MAX_VALUE);
+        if (result == null) {
+            throw new AssetLoadException("Asset exceeds 2 GiB.");
+        }
+
+        return result;
+    }
+
+    /**
+     * Read the entire content of the specified asset, unless it exceeds the
+     * specified size.
+     * <p>
+     * If the asset resolves to a local file, the file is mapped into memory
+     * instead of being copied. If it resolves to an indexed zip entry, the
+     * entry is read directly from the archive.
+     *
+     * @param info the asset to read (not null)
+     * @param maxBytes the maximum number of bytes to read (&ge;0)
+     * @return a new direct buffer whose capacity equals the size of the asset
+     * (read-only if mapped, otherwise writable), or null if the asset is
+     * larger than {@code maxBytes} or 2 GiB
+     */
+    static ByteBuffer readContents(AssetInfo info, long maxBytes) {
+        assert maxBytes >= 0L : maxBytes;
+        int maxCapacity = (int) Math.min(maxBytes, Integer.MAX_VALUE);
+
+        ByteBuffer result = null;
+        if (info instanceof ZipEntryInfo) {
+            ZipEntryInfo entryInfo = (ZipEntryInfo) info;
+            if (entryInfo.size() <= maxCapacity) {
+                result = entryInfo.readContents();
+            }
+
+        } else {
+            try (InputStream inputStream = info.openStream()) {
+                if (inputStream instanceof FileInputStream) {
+                    FileInputStream fileStream = (FileInputStream) inputStream;
+                    result = mapFile(fileStream, maxCapacity);
+                } else {
+                    result = readStream(inputStream, 0, maxCapacity);
+                }
+
+            } catch (IOException exception) {
+                throw new AssetLoadException(
+                        "Failed to read asset contents.", exception);
+            }
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Close the stream (if any) from which the window is re-filled.
+     */
+    private void closeStream() {
+        if (stream != null) {
+            try {
+                stream.close(); // also closes the file channel, if any
+            } catch (IOException exception) {
+                logger.log(Level.WARNING, "Failed to close an asset stream.",
+                        exception);
+            }
+            this.fileChannel = null;
+            this.stream = null;
+        }
+    }
+
+    /**
+     * Install the shared callbacks in the specified AIFile, creating them if
+     * they don't exist yet. Each callback is stateless: it locates its file
+     * using the file handle.
+     *
+     * @param aiFile the struct to configure (not null, modified)
+     */
+    private static synchronized void configureCallbacks(AIFile aiFile) {
+        if (readProc == null) {
+            readProc = AIFileReadProc.create(
+                    (long fileHandle, long dest, long size, long count)
+                    -> find(fileHandle).readCallback(dest, size, count));
+            seekProc = AIFileSeek.create(
+                    (long fileHandle, long offset, int origin)
+                    -> find(fileHandle).seekCallback(offset, origin));
+            sizeProc = AIFileTellProc.create(
+                    (long fileHandle) -> find(fileHandle).tellCallback(true));
+            tellProc = AIFileTellProc.create(
+                    (long fileHandle) -> find(fileHandle).tellCallback(false));
+        }
+
+        aiFile.FileSizeProc(sizeProc);
+        aiFile.ReadProc(readProc);
+        aiFile.SeekProc(seekProc);
+        aiFile.TellProc(tellProc);
+    }
+
+    /**
+     * Re-fill the window of a streamed file, starting from the specified
+     * offset. An uncompressed local file is read positionally. Any other asset
+     * is read sequentially: skipping forward if possible, or else re-opening
+     * its stream.
+     *
+     * @param startOffset the offset of the first byte to read (in bytes from
+     * the start of the file, &ge;0, &lt;size)
+     * @throws IOException if the asset cannot be read
      */
-    private static ByteBuffer getContents(AssetInfo info, byte[] contentArray) {
-        assert contentArray != null;
-        ByteBuffer result = ByteBuffer.wrap(contentArray);
+    private void fill(long startOffset) throws IOException {
+        assert streamInfo != null;
+        assert startOffset >= 0L && startOffset < size : startOffset;
+
+        if (stream != null && fileChannel == null
+                && startOffset < streamPosition) {
+            // The stream can't go backward, so start over:
+            closeStream();
+        }
+        if (stream == null) {
+            this.stream = openDecoded(streamInfo);
+            this.streamPosition = 0L;
+            if (stream instanceof FileInputStream) {
+                this.fileChannel = ((FileInputStream) stream).getChannel();
+            }
+        }
 
-        byte[] tmpArray = readArrays.get();
-        try (InputStream inputStream = info.openStream()) {
-            while (true) {
-                int numBytesRead = inputStream.read(tmpArray);
+        window.clear();
+        if (fileChannel != null) {
+            long filePosition = startOffset;
+            while (window.hasRemaining()) {
+                int numBytesRead = fileChannel.read(window, filePosition);
                 if (numBytesRead < 0) {
                     break;
+                }
+                filePosition += numBytesRead;
+            }
 
-                } else if (numBytesRead == tmpArray.length) {
-                    result.put(tmpArray);
+        } else {
+            skipFully(stream, startOffset - streamPosition);
 
-                } else {
-                    for (int i = 0; i < numBytesRead; ++i) {
-                        byte b = tmpArray[i];
-                        result.put(b);
+            // Note: closing the channel would close the stream.
+            ReadableByteChannel channel = Channels.newChannel(stream);
+            while (window.hasRemaining()) {
+                int numBytesRead = channel.read(window);
+                if (numBytesRead < 0) {
+                    break;
+                }
+            }
+            this.streamPosition = startOffset + window.position();
+        }
+        window.flip();
+        this.windowStart = startOffset;
+    }
+
+    /**
+     * Copy the specified buffer to a new direct buffer that's roughly twice as
+     * large.
+     *
+     * @param buffer the buffer to copy (not null, position=capacity, modified)
+     * @param maxCapacity the maximum capacity of the new buffer (in bytes,
+     * &gt;buffer.capacity())
+     * @return a new buffer, positioned after the copied content (not null)
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, int maxCapacity) {
+        int oldCapacity = buffer.capacity();
+        assert maxCapacity > oldCapacity : maxCapacity;
+
+        long newCapacity = Math.max(2L * oldCapacity, defaultNumBytes);
+        newCapacity = Math.min(newCapacity, maxCapacity);
+        ByteBuffer result = BufferUtils.createByteBuffer((int) newCapacity);
+
+        buffer.flip();
+        result.put(buffer);
+
+        return result;
+    }
+
+    /**
+     * Map the specified file into memory.
+     *
+     * @param fileStream a stream that reads from the file (not null)
+     * @param maxBytes the maximum size to map (in bytes, &ge;0)
+     * @return a new read-only buffer whose capacity equals the size of the
+     * file, or null if the file is too large to map
+     * @throws IOException if the file cannot be mapped
+     */
+    private static ByteBuffer mapFile(FileInputStream fileStream, int maxBytes)
+            throws IOException {
+        FileChannel channel = fileStream.getChannel();
+        long fileSize = channel.size();
+
+        ByteBuffer result = null;
+        if (fileSize <= maxBytes) {
+            // The mapping remains valid after the channel is closed:
+            result = channel.map(FileChannel.MapMode.READ_ONLY, 0L, fileSize);
+        }
+
+        return result;
+    }
+
+    /**
+     * Open a stream that reads the specified asset, decompressing it if it's
+     * gzip-compressed. An uncompressed local file is returned as a
+     * {@code FileInputStream}, so it can still be read positionally.
+     *
+     * @param info the asset to open (not null)
+     * @return a new stream (not null)
+     * @throws IOException if the asset cannot be read
+     */
+    private static InputStream openDecoded(AssetInfo info) throws IOException {
+        InputStream result = info.openStream();
+        ByteBuffer signature = ByteBuffer.allocate(2);
+        try {
+            if (result instanceof FileInputStream) {
+                FileChannel channel = ((FileInputStream) result).getChannel();
+                channel.read(signature, 0L);
+            } else {
+                result = new BufferedInputStream(result);
+                result.mark(2);
+                for (int i = 0; i < 2; ++i) {
+                    int nextByte = result.read();
+                    if (nextByte >= 0) {
+                        signature.put((byte) nextByte);
                     }
                 }
+                result.reset();
+            }
+            if (signature.position() == 2 && isGzip(signature)) {
+                result = new GZIPInputStream(result, gzipBufferNumBytes);
             }
+
         } catch (IOException exception) {
-            throw new AssetLoadException(
-                    "Failed to read asset contents.", exception);
+            result.close();
+            throw exception;
+        }
+
+        return result;
+    }
+
+    /**
+     * Starting from the current read position, copy whole records to the
+     * specified native address and advance the read position accordingly.
+     *
+     * @param destAddress the address to copy to (not zero)
+     * @param bytesPerRecord the size of each record (in bytes, &ge;0)
+     * @param recordCount the maximum number of records to copy (&ge;0)
+     * @return the number of records copied (&ge;0, &le;recordCount)
+     * @throws IOException if the window cannot be re-filled
+     */
+    private long read(long destAddress, long bytesPerRecord, long recordCount)
+            throws IOException {
+        long result = 0L;
+        if (bytesPerRecord > 0L) {
+            long numBytesRemaining = Math.max(0L, size - position);
+            result = Math.min(recordCount, numBytesRemaining / bytesPerRecord);
+
+            // Copy the records in as few chunks as the window allows:
+            long byteCount = result * bytesPerRecord;
+            long numBytesCopied = 0L;
+            while (numBytesCopied < byteCount) {
+                long offset = position - windowStart;
+                if (offset < 0L || offset >= window.limit()) {
+                    fill(position);
+                    offset = 0L;
+                    if (window.limit() == 0) { // the asset is truncated
+                        result = numBytesCopied / bytesPerRecord;
+                        break;
+                    }
+                }
+
+                long chunkBytes = Math.min(
+                        byteCount - numBytesCopied, window.limit() - offset);
+                MemoryUtil.memCopy(windowAddress + offset,
+                        destAddress + numBytesCopied, chunkBytes);
+                numBytesCopied += chunkBytes;
+                position += chunkBytes;
+            }
         }
-        result.flip();
 
-        assert result.limit() == result.capacity() :
-                result.limit() + " != " + result.capacity();
         return result;
     }
 
     /**
-     * Starting from the current read position, copy file content to the
-     * specified target buffer and advance the read position accordingly.
+     * Service a read callback from lwjgl-assimp.
      *
-     * @param targetBuffer the buffer to copy to (not null, rewound, modified)
+     * @param destAddress the address to copy to (not zero)
      * @param bytesPerRecord the size of each record (in bytes, &ge;0)
      * @param recordCount the maximum number of records to copy (&ge;0)
      * @return the number of records copied (&ge;0, &le;recordCount)
      */
-    private long read(
-            ByteBuffer targetBuffer, long bytesPerRecord, long recordCount) {
-        long numRecordsCopied = 0L;
-        while (numRecordsCopied < recordCount
-                && contents.remaining() >= bytesPerRecord) {
-            // Copy one record:
-            for (long byteIndex = 0L; byteIndex < bytesPerRecord; ++byteIndex) {
-                byte b = contents.get();
-                targetBuffer.put(b);
+    private long readCallback(
+            long destAddress, long bytesPerRecord, long recordCount) {
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+
+        long result;
+        try {
+            result = read(destAddress, bytesPerRecord, recordCount);
+        } catch (IOException exception) {
+            // Exceptions mustn't propagate into native code:
+            logger.log(Level.SEVERE, "Failed to stream an asset.", exception);
+            result = 0L;
+        }
+        ++numReads;
+        numBytesRead += result * bytesPerRecord;
+
+        if (isTimed) {
+            callbackNanos += System.nanoTime() - startNanos;
+        }
+        return result;
+    }
+
+    /**
+     * Read the remaining content of the specified input stream to a direct
+     * buffer using a single pass.
+     * <p>
+     * The specified size hint, or else the stream's estimate of its available
+     * bytes, is used to size the buffer. If the estimate is too small, the
+     * buffer is grown geometrically.
+     *
+     * @param inputStream the stream to read (not null)
+     * @param sizeHint the expected number of bytes, or &le;0 if unknown
+     * @param maxBytes the maximum number of bytes to read (&ge;0)
+     * @return a new direct buffer whose capacity equals the number of bytes
+     * read, or null if the stream holds more than {@code maxBytes}
+     * @throws IOException if the stream cannot be read
+     */
+    private static ByteBuffer readStream(
+            InputStream inputStream, int sizeHint, int maxBytes)
+            throws IOException {
+        int numBytes = sizeHint;
+        if (numBytes <= 0) {
+            numBytes = inputStream.available();
+        }
+        if (numBytes <= 0) {
+            numBytes = defaultNumBytes;
+        }
+        numBytes = Math.min(numBytes, maxBytes);
+        ByteBuffer result = BufferUtils.createByteBuffer(numBytes);
+
+        // Note: closing the channel would close the stream.
+        ReadableByteChannel channel = Channels.newChannel(inputStream);
+        while (true) {
+            if (!result.hasRemaining()) {
+                // The buffer is full, so test for end-of-stream:
+                int nextByte = inputStream.read();
+                if (nextByte < 0) {
+                    break;
+                } else if (result.capacity() >= maxBytes) {
+                    result = null; // too large
+                    break;
+                }
+                result = grow(result, maxBytes);
+                result.put((byte) nextByte);
+            }
+
+            int numBytesRead = channel.read(result);
+            if (numBytesRead < 0) {
+                break;
             }
-            ++numRecordsCopied;
         }
 
-        return numRecordsCopied;
+        if (result != null) {
+            result.flip();
+            if (result.limit() < result.capacity()) {
+                result = result.slice();
+            }
+        }
+
+        return result;
     }
 
     /**
-     * Alter the read position.
+     * Alter the read position. Streamed content isn't accessed until the next
+     * read.
      *
      * @param offset the desired offset relative to the origin position (in
      * bytes, may be negative)
@@ -284,11 +855,29 @@ class AssetFile {
         long newPosition = originPosition + offset;
 
         assert newPosition >= 0L : newPosition;
-        assert newPosition <= Integer.MAX_VALUE : newPosition;
-        assert newPosition <= contents.capacity() :
-                newPosition + " > " + contents.capacity();
+        assert newPosition <= size : newPosition + " > " + size;
+
+        this.position = newPosition;
+    }
 
-        contents.position((int) newPosition);
+    /**
+     * Service a seek callback from lwjgl-assimp.
+     *
+     * @param offset the desired offset relative to the origin position (in
+     * bytes, may be negative)
+     * @param origin the encoded starting point
+     * @return an Assimp return code ({@code Assimp.aiReturn_SUCCESS})
+     */
+    private int seekCallback(long offset, int origin) {
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+
+        seek(offset, origin);
+        ++numSeeks;
+
+        if (isTimed) {
+            callbackNanos += System.nanoTime() - startNanos;
+        }
+        return Assimp.aiReturn_SUCCESS;
     }
 
     /**
@@ -297,17 +886,99 @@ class AssetFile {
      * @return the size (in bytes, &ge;0)
      */
     private long size() {
-        int result = contents.capacity();
+        long result = size;
+        return result;
+    }
+
+    /**
+     * Skip the specified number of bytes in the specified input stream.
+     *
+     * @param inputStream the stream to skip (not null)
+     * @param numBytes the number of bytes to skip (&ge;0)
+     * @throws IOException if the stream ends prematurely or cannot be read
+     */
+    private static void skipFully(InputStream inputStream, long numBytes)
+            throws IOException {
+        long numBytesRemaining = numBytes;
+        while (numBytesRemaining > 0L) {
+            long numSkipped = inputStream.skip(numBytesRemaining);
+            if (numSkipped <= 0L) {
+                // skip() made no progress, so read a byte instead:
+                if (inputStream.read() < 0) {
+                    throw new IOException("Unexpected end of stream.");
+                }
+                numSkipped = 1L;
+            }
+            numBytesRemaining -= numSkipped;
+        }
+    }
+
+    /**
+     * Skip to the end of the specified input stream.
+     *
+     * @param inputStream the stream to skip (not null)
+     * @return the number of bytes skipped (&ge;0)
+     * @throws IOException if the stream cannot be read
+     */
+    private static long skipToEnd(InputStream inputStream) throws IOException {
+        byte[] scratch = new byte[defaultNumBytes];
+        long result = 0L;
+        while (true) {
+            long numSkipped = inputStream.skip(Integer.MAX_VALUE);
+            if (numSkipped <= 0L) {
+                // Either the end was reached or skip() made no progress:
+                int numBytesRead = inputStream.read(scratch);
+                if (numBytesRead < 0) {
+                    break;
+                }
+                numSkipped = numBytesRead;
+            }
+            result += numSkipped;
+        }
+
+        return result;
+    }
+
+    /**
+     * Return the index of the specified file in the table of open files.
+     *
+     * @param fileHandle the handle of an {@code AIFile} created by this class
+     * @return the index (&ge;0)
+     */
+    private static int slot(long fileHandle) {
+        long userData = AIFile.nUserData(fileHandle);
+        int result = (int) userData;
+
+        assert result >= 0 : result;
         return result;
     }
 
     /**
      * Return the current read position.
      *
-     * @return the buffer position relative to the start of the file (&ge;0)
+     * @return the position relative to the start of the file (in bytes,
+     * &ge;0)
      */
     private long tell() {
-        int result = contents.position();
+        long result = position;
+        return result;
+    }
+
+    /**
+     * Service a tell or file-size callback from lwjgl-assimp.
+     *
+     * @param isSize true to return the size, false to return the position
+     * @return the size or position (in bytes, &ge;0)
+     */
+    private long tellCallback(boolean isSize) {
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+
+        long result = isSize ? size() : tell();
+        ++numTells;
+
+        if (isTimed) {
+            callbackNanos += System.nanoTime() - startNanos;
+        }
         return result;
     }
 }
@@ -31,35 +31,126 @@ package com.github.stephengold.wrench;
 import com.jme3.asset.AssetInfo;
 import com.jme3.asset.AssetKey;
 import com.jme3.asset.AssetManager;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.lwjgl.assimp.AIFileCloseProc;
 import org.lwjgl.assimp.AIFileIO;
+import org.lwjgl.assimp.AIFileOpenProc;
 import org.lwjgl.system.MemoryUtil;
 
 /**
  * A read-only virtual filesystem based on a JMonkeyEngine AssetManager, to be
  * used by lwjgl-assimp.
+ * <p>
+ * Assets are normally read in their entirety and cached. Assets larger than
+ * the streaming threshold are instead streamed through a bounded window each
+ * time they're opened.
+ * <p>
+ * Gzip-compressed assets are recognized by their signature and presented to
+ * Assimp decompressed. Optionally, if an asset can't be located, the same path
+ * with a ".gz" suffix is tried before giving up.
  *
  * @author Stephen Gold sgold@sonic.net
  */
 class AssetFileSystem {
     // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(AssetFileSystem.class.getName());
+    /**
+     * logger of the AssetManager interface, hushed during imports
+     */
+    final private static Logger amLogger
+            = Logger.getLogger(AssetManager.class.getName());
+    /**
+     * all active filesystems in the process, indexed by the slot stored in
+     * each AIFileIO's user data
+     */
+    final private static SlotTable<AssetFileSystem> activeSystems
+            = new SlotTable<>();
+    // *************************************************************************
     // fields
 
+    /**
+     * shared callback to close any file opened by this class, or null if not
+     * yet created
+     */
+    private static AIFileCloseProc closeProc;
     /**
      * callbacks used by lwjgl-assimp to access the filesystem
      */
     private AIFileIO aiFileIo;
     /**
-     * map AIFile handles to open file objects
+     * shared callback to open a file in any active filesystem, or null if not
+     * yet created
+     */
+    private static AIFileOpenProc openProc;
+    /**
+     * AssetManager used to locate assets
+     */
+    final private AssetManager assetManager;
+    /**
+     * true to try a ".gz" suffix for assets that can't be located, otherwise
+     * false
+     */
+    final private boolean isGzipFallback;
+    /**
+     * true to measure elapsed times, otherwise false
+     */
+    final private boolean isTimed;
+    /**
+     * what this filesystem did (guarded by {@code this})
      */
-    final private Map<Long, AssetFile> openFileMap = new TreeMap<>();
+    final private ImportStatistics statistics;
+    /**
+     * index of this filesystem in the table of active filesystems
+     */
+    final private int slot;
+    /**
+     * number of active filesystems that are hushing the AssetManager logger
+     */
+    private static int numHushers = 0;
+    /**
+     * logging level of the AssetManager logger before it was hushed
+     */
+    private static Level savedLevel;
+    /**
+     * files opened by this filesystem and not yet closed (guarded by
+     * {@code this})
+     */
+    final private List<AssetFile> openFiles = new ArrayList<>(8);
+    /**
+     * size above which assets are streamed instead of being read in their
+     * entirety (in bytes)
+     */
+    final private long streamingThreshold;
     /**
      * map asset paths to file content
      */
-    final private Map<String, byte[]> contentCache = new TreeMap<>();
+    final private Map<String, ByteBuffer> contentCache = new TreeMap<>();
+    /**
+     * map asset paths to located assets that are too large to cache
+     */
+    final private Map<String, AssetInfo> streamedAssets = new TreeMap<>();
+    /**
+     * map asset paths to the sizes of streamed assets (in bytes)
+     */
+    final private Map<String, Long> streamedSizes = new TreeMap<>();
+    /**
+     * asset paths that the AssetManager failed to locate during this import
+     */
+    final private Set<String> missingPaths = new TreeSet<>();
     // *************************************************************************
     // constructors
 
@@ -67,37 +158,36 @@ class AssetFileSystem {
      * Instantiate a filesystem based on the specified AssetManager.
      *
      * @param assetManager (not null, alias created)
+     * @param statistics the statistics to update (not null, alias created)
+     * @param isTimed true to measure elapsed times, otherwise false
+     * @param streamingThreshold the size above which assets are streamed
+     * instead of being read in their entirety (in bytes, &ge;0)
+     * @param isGzipFallback true to try a ".gz" suffix for assets that can't
+     * be located, otherwise false
      */
-    AssetFileSystem(AssetManager assetManager) {
-        // Configure callbacks for lwjgl-assimp:
-        this.aiFileIo = AIFileIO.calloc();
+    AssetFileSystem(AssetManager assetManager, ImportStatistics statistics,
+            boolean isTimed, long streamingThreshold,
+            boolean isGzipFallback) {
+        assert streamingThreshold >= 0L : streamingThreshold;
 
-        aiFileIo.OpenProc((long fsHandle, long fileName, long openMode) -> {
-            String mode = MemoryUtil.memUTF8Safe(openMode);
-            assert mode != null && mode.equals("rb") : "mode = " + mode;
+        this.assetManager = assetManager;
+        this.isGzipFallback = isGzipFallback;
+        this.isTimed = isTimed;
+        this.statistics = statistics;
+        this.streamingThreshold = streamingThreshold;
 
-            String assetPath = MemoryUtil.memUTF8Safe(fileName);
-            AssetKey<Object> assetKey = new AssetKey<>(assetPath);
+        // Hush AssetManager warnings about missing resources until destroyed:
+        hushAssetManager();
 
-            // Temporarily hush AssetManager warnings about missing resources:
-            Logger amLogger = Logger.getLogger(AssetManager.class.getName());
-            Level savedLevel = amLogger.getLevel();
-            amLogger.setLevel(Level.SEVERE);
-            AssetInfo assetInfo = assetManager.locateAsset(assetKey);
-            amLogger.setLevel(savedLevel);
-
-            long fileHandle = open(assetInfo);
-            return fileHandle;
-        });
+        // Configure the shared callbacks for lwjgl-assimp:
+        this.aiFileIo = AIFileIO.calloc();
+        synchronized (AssetFileSystem.class) { // see freeCallbacks()
+            configureCallbacks(aiFileIo);
 
-        aiFileIo.CloseProc((long fsHandle, long fileHandle) -> {
-            assert fsHandle == aiFileIo.address();
-            AssetFile openFile = findFile(fileHandle);
-            if (openFile != null) {
-                openFile.destroy();
-                openFileMap.remove(fileHandle);
-            }
-        });
+            // Store the slot so the callbacks can locate this filesystem:
+            this.slot = activeSystems.add(this);
+        }
+        aiFileIo.UserData(slot);
     }
     // *************************************************************************
     // new methods exposed
@@ -105,28 +195,52 @@ class AssetFileSystem {
     /**
      * Invoked when the filesystem is no longer needed, to free its resources.
      */
-    void destroy() {
+    synchronized void destroy() {
         // Destroy all open files:
-        for (AssetFile file : openFileMap.values()) {
+        for (AssetFile file : openFiles) {
+            file.addStatisticsTo(statistics);
             file.destroy();
         }
-        openFileMap.clear();
+        openFiles.clear();
+
+        if (logger.isLoggable(Level.FINE)) {
+            long numBytesIngested = statistics.countBytesIngested();
+            int numFiles = contentCache.size();
+            logger.log(Level.FINE, "Read {0} byte{1} from {2} file{3}.",
+                    new Object[]{
+                        numBytesIngested, (numBytesIngested == 1L) ? "" : "s",
+                        numFiles, (numFiles == 1) ? "" : "s"
+                    });
+        }
 
         if (aiFileIo != null) {
+            unhushAssetManager();
+            activeSystems.remove(slot);
             aiFileIo.free();
             this.aiFileIo = null;
         }
     }
 
     /**
-     * Access an open file via its handle.
+     * Free the native callbacks shared by all filesystems and files. They will
+     * be re-created if needed.
      *
-     * @param fileHandle the handle of an {@code AIFile} instance
-     * @return the pre-existing AssetFile instance, or null if none
+     * @throws IllegalStateException if any filesystems are active
      */
-    AssetFile findFile(long fileHandle) {
-        AssetFile result = openFileMap.get(fileHandle);
-        return result;
+    static synchronized void freeCallbacks() {
+        if (!activeSystems.isEmpty()) {
+            throw new IllegalStateException(
+                    "Can't free the callbacks during an import.");
+        }
+
+        if (openProc != null) {
+            closeProc.free();
+            openProc.free();
+
+            closeProc = null;
+            openProc = null;
+        }
+        AssetFile.freeCallbacks();
     }
 
     /**
@@ -138,33 +252,291 @@ class AssetFileSystem {
         assert aiFileIo != null;
         return aiFileIo;
     }
+
+    /**
+     * Read the specified main asset and any files it references, fetching the
+     * referenced files in parallel, so that Assimp finds them all in the
+     * cache.
+     *
+     * @param assetPath the path to the main asset (not null)
+     */
+    void prefetch(String assetPath) {
+        ByteBuffer mainContent = fetch(assetPath);
+        if (mainContent != null) {
+            List<String> dependencies
+                    = Prefetcher.listDependencies(assetPath, mainContent);
+            if (!dependencies.isEmpty()) {
+                String folder = new AssetKey<>(assetPath).getFolder();
+                Set<String> paths = new TreeSet<>();
+                for (String dependency : dependencies) {
+                    paths.add(folder + dependency);
+                }
+                Prefetcher.fetchAll(paths, this::fetch);
+            }
+        }
+    }
     // *************************************************************************
     // private methods
 
     /**
-     * Open the specified asset.
+     * Close the specified file.
+     *
+     * @param fileHandle the handle of an {@code AIFile} opened by this
+     * filesystem
+     */
+    private void close(long fileHandle) {
+        AssetFile openFile = AssetFile.find(fileHandle);
+        if (openFile != null) {
+            openFile.destroy();
+            synchronized (this) {
+                openFile.addStatisticsTo(statistics);
+                boolean success = openFiles.remove(openFile);
+                assert success;
+            }
+        }
+    }
+
+    /**
+     * Install the shared callbacks in the specified AIFileIO, creating them if
+     * they don't exist yet. Each callback is stateless: it locates its
+     * filesystem using the handle.
+     *
+     * @param aiFileIo the struct to configure (not null, modified)
+     */
+    private static synchronized void configureCallbacks(AIFileIO aiFileIo) {
+        if (openProc == null) {
+            openProc = AIFileOpenProc.create(
+                    (long fsHandle, long fileName, long openMode) -> {
+                        String mode = MemoryUtil.memUTF8Safe(openMode);
+                        assert mode != null && mode.equals("rb") : mode;
+
+                        String assetPath = MemoryUtil.memUTF8Safe(fileName);
+                        long fileHandle = find(fsHandle).open(assetPath);
+                        return fileHandle;
+                    });
+            closeProc = AIFileCloseProc.create(
+                    (long fsHandle, long fileHandle)
+                    -> find(fsHandle).close(fileHandle));
+        }
+
+        aiFileIo.CloseProc(closeProc);
+        aiFileIo.OpenProc(openProc);
+    }
+
+    /**
+     * Access an active filesystem via its handle.
+     *
+     * @param fsHandle the handle of an {@code AIFileIO} created by this class
+     * @return the pre-existing instance (not null)
+     */
+    private static AssetFileSystem find(long fsHandle) {
+        int slot = (int) AIFileIO.nUserData(fsHandle);
+        AssetFileSystem result = activeSystems.get(slot);
+
+        assert result != null;
+        assert result.aiFileIo.address() == fsHandle;
+        return result;
+    }
+
+    /**
+     * Locate the specified asset and return its content.
      * <p>
-     * Opening an asset causes all its content to be read and cached.
+     * Unless the content is already cached, either by this filesystem or (if
+     * enabled) by the process-wide {@code ContentCache}, all of it is read (in
+     * a single pass) and cached. Assets that couldn't be located are
+     * remembered for the rest of the import and (if enabled) by the
+     * {@code NegativeLookupCache}. Assets too large to cache are remembered
+     * for streaming.
+     * <p>
+     * May be invoked from any thread.
      *
-     * @param assetInfo the asset to open, or null for a non-existent asset
-     * @return a new AIFileIO handle, or zero if {@code assetInfo} was null
+     * @param assetPath the path to the asset (not null)
+     * @return the cached content (positioned at the start, do not modify the
+     * content) or null if the asset wasn't found or is to be streamed
      */
-    private long open(AssetInfo assetInfo) {
-        long result = 0L;
-        if (assetInfo != null) { // The asset exists:
-            AssetKey key = assetInfo.getKey();
-            String assetPath = key.getName();
-            byte[] contentArray = contentCache.get(assetPath);
-            AssetFile loaderFile = new AssetFile(this, assetInfo, contentArray);
+    private ByteBuffer fetch(String assetPath) {
+        AssetKey<Object> assetKey = new AssetKey<>(assetPath);
+        String keyPath = assetKey.getName();
 
-            result = loaderFile.handle();
-            openFileMap.put(result, loaderFile);
+        ByteBuffer result = null;
+        boolean isMissing;
+        boolean isStreamed;
+        synchronized (this) {
+            isMissing = missingPaths.contains(keyPath);
+            isStreamed = streamedAssets.containsKey(keyPath);
+            if (isMissing) {
+                statistics.addMiss(0L);
+            } else if (!isStreamed) {
+                result = contentCache.get(keyPath);
+                if (result != null) {
+                    statistics.addCacheHit();
+                }
+            }
+        }
+
+        if (!isMissing && !isStreamed && result == null) {
+            result = ContentCache.get(assetManager, keyPath);
+            if (result == null) {
+                result = ingest(assetKey);
+            } else {
+                synchronized (this) {
+                    statistics.addCacheHit();
+                }
+            }
+            if (result != null) { // Cache the content for the rest of import:
+                synchronized (this) {
+                    contentCache.put(keyPath, result);
+                }
+            }
+        }
+
+        if (result != null) {
+            result = result.duplicate();
+        }
+
+        return result;
+    }
+
+    /**
+     * Hush AssetManager warnings about missing resources. Hushes are counted,
+     * so concurrent imports restore the original level only when the last of
+     * them completes.
+     */
+    private static synchronized void hushAssetManager() {
+        if (numHushers == 0) {
+            savedLevel = amLogger.getLevel();
+            amLogger.setLevel(Level.SEVERE);
+        }
+        ++numHushers;
+    }
+
+    /**
+     * Locate the specified asset (or, if the fallback is enabled, a
+     * gzip-compressed version of it) and read all its content (in a single
+     * pass), decompressing it if necessary. Assets that couldn't be located or
+     * that exceed the streaming threshold are remembered. A single miss is
+     * recorded for both names.
+     *
+     * @param assetKey the key of the asset (not null)
+     * @return a new direct buffer (not null) or null if the asset wasn't found
+     * or is to be streamed
+     */
+    private ByteBuffer ingest(AssetKey<Object> assetKey) {
+        String keyPath = assetKey.getName();
+
+        // Avoid probing the locators for assets known to be missing:
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+        AssetInfo assetInfo = null;
+        boolean isKnownMissing
+                = NegativeLookupCache.contains(assetManager, keyPath);
+        if (!isKnownMissing) {
+            assetInfo = assetManager.locateAsset(assetKey);
+            if (assetInfo == null && isGzipFallback
+                    && !keyPath.endsWith(".gz")) {
+                AssetKey<Object> gzKey = new AssetKey<>(keyPath + ".gz");
+                assetInfo = assetManager.locateAsset(gzKey);
+            }
+        }
+        long locateNanos = isTimed ? System.nanoTime() - startNanos : 0L;
+
+        ByteBuffer result = null;
+        if (assetInfo == null) {
+            if (!isKnownMissing) { // the locators were actually queried
+                NegativeLookupCache.add(assetManager, keyPath);
+            }
+            synchronized (this) {
+                missingPaths.add(keyPath);
+                statistics.addMiss(locateNanos);
+            }
+
+        } else {
+            startNanos = isTimed ? System.nanoTime() : 0L;
+            result = AssetFile.readContents(assetInfo, streamingThreshold);
+            long readNanos = isTimed ? System.nanoTime() - startNanos : 0L;
+            long numBytesIngested = (result == null) ? 0L : result.capacity();
+
+            if (result != null && AssetFile.isGzip(result)) {
+                startNanos = isTimed ? System.nanoTime() : 0L;
+                result = AssetFile.gunzip(result, streamingThreshold);
+                long nanos = isTimed ? System.nanoTime() - startNanos : 0L;
+                long numBytes = (result == null) ? 0L : result.capacity();
+                synchronized (this) {
+                    statistics.addDecompression(numBytes, nanos);
+                }
+            }
+
+            if (result == null) { // too large, so measure it for streaming:
+                startNanos = isTimed ? System.nanoTime() : 0L;
+                long size = AssetFile.measure(assetInfo);
+                readNanos += isTimed ? System.nanoTime() - startNanos : 0L;
+                logger.log(Level.INFO, "Streaming {0} ({1} bytes).",
+                        new Object[]{keyPath, size});
+                synchronized (this) {
+                    streamedAssets.put(keyPath, assetInfo);
+                    streamedSizes.put(keyPath, size);
+                }
+
+            } else { // Cache the content (decompressed) for later imports:
+                ContentCache.put(assetManager, keyPath, result);
+            }
+            synchronized (this) {
+                statistics.addRead(numBytesIngested, locateNanos, readNanos);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Locate and open the specified asset.
+     *
+     * @param assetPath the path to the asset (not null)
+     * @return a new AIFile handle, or zero if the asset wasn't found
+     */
+    private long open(String assetPath) {
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+        ByteBuffer content = fetch(assetPath);
 
-            // Cache the content for future use:
-            contentArray = loaderFile.getContentArray();
-            contentCache.put(assetPath, contentArray);
+        AssetFile loaderFile = null;
+        if (content != null) {
+            loaderFile = new AssetFile(content, isTimed);
+
+        } else { // The asset is either missing or else to be streamed:
+            String keyPath = new AssetKey<>(assetPath).getName();
+            AssetInfo info;
+            Long size;
+            synchronized (this) {
+                info = streamedAssets.get(keyPath);
+                size = streamedSizes.get(keyPath);
+            }
+            if (info != null) {
+                loaderFile = new AssetFile(info, size, isTimed);
+            }
+        }
+
+        long result = 0L;
+        if (loaderFile != null) { // The asset exists:
+            result = loaderFile.handle();
+            long nanos = isTimed ? System.nanoTime() - startNanos : 0L;
+            synchronized (this) {
+                openFiles.add(loaderFile);
+                statistics.addOpen(nanos);
+            }
         }
 
         return result;
     }
+
+    /**
+     * Cancel one hush of the AssetManager logger, restoring its original level
+     * if no other hushes remain.
+     */
+    private static synchronized void unhushAssetManager() {
+        assert numHushers > 0 : numHushers;
+        --numHushers;
+        if (numHushers == 0) {
+            amLogger.setLevel(savedLevel);
+            savedLevel = null;
+        }
+    }
 }
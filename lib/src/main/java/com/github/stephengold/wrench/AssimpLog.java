@@ -0,0 +1,252 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.lwjgl.assimp.AILogStream;
+import org.lwjgl.assimp.AILogStreamCallback;
+import org.lwjgl.assimp.Assimp;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Capture the messages that Assimp logs while the current thread imports an
+ * asset.
+ * <p>
+ * Assimp's logger is global, so a single custom log stream is attached on
+ * first use and left attached. Assimp logs on the importing thread, so the
+ * stream routes each message to the capture (if any) of the thread that
+ * logged it. Messages from threads without a capture are discarded without
+ * being decoded. Each capture retains only its most recent messages. A
+ * verbose capture also forwards every message to this class's logger.
+ * <p>
+ * While any verbose capture is active, Assimp generates debug messages for
+ * all imports, but they're delivered only to verbose captures.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class AssimpLog {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum number of messages retained by each capture
+     */
+    final private static int maxMessages = 32;
+    /**
+     * message logger for this class, also used to forward verbose messages
+     */
+    final private static Logger logger
+            = Logger.getLogger(AssimpLog.class.getName());
+    /**
+     * capture of the current thread, or null if none
+     */
+    final private static ThreadLocal<AssimpLog> currentCapture
+            = new ThreadLocal<>();
+    // *************************************************************************
+    // fields
+
+    /**
+     * log stream attached to Assimp, or null if not attached
+     */
+    private static AILogStream logStream;
+    /**
+     * callback invoked by the attached log stream, or null if none
+     */
+    private static AILogStreamCallback logProc;
+    /**
+     * capture that was current before this one began, or null if none
+     */
+    final private AssimpLog previous;
+    /**
+     * true to forward messages to the logger, otherwise false
+     */
+    final private boolean isVerbose;
+    /**
+     * most recent messages, oldest first
+     */
+    final private Deque<String> messages = new ArrayDeque<>(maxMessages);
+    /**
+     * number of captures currently active in all threads (&ge;0)
+     */
+    private static int numCaptures = 0;
+    /**
+     * number of verbose captures currently active in all threads (&ge;0)
+     */
+    private static int numVerboseCaptures = 0;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a capture for the current thread.
+     *
+     * @param isVerbose true to request Assimp's debug messages and forward
+     * messages to the logger, otherwise false
+     * @param previous the capture that was current (may be null)
+     */
+    private AssimpLog(boolean isVerbose, AssimpLog previous) {
+        this.isVerbose = isVerbose;
+        this.previous = previous;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Begin capturing the messages that Assimp logs on the current thread.
+     * Invoke {@code end()} on the result when done importing!
+     *
+     * @param isVerbose true to request Assimp's debug messages and forward
+     * messages to the logger, otherwise false
+     * @return a new capture (not null)
+     */
+    static AssimpLog begin(boolean isVerbose) {
+        synchronized (AssimpLog.class) {
+            if (logStream == null) {
+                logProc = AILogStreamCallback.create(AssimpLog::logMessage);
+                logStream = AILogStream.calloc();
+                logStream.callback(logProc);
+                Assimp.aiAttachLogStream(logStream);
+            }
+            if (isVerbose) {
+                if (numVerboseCaptures == 0) {
+                    Assimp.aiEnableVerboseLogging(true);
+                }
+                ++numVerboseCaptures;
+            }
+            ++numCaptures;
+        }
+
+        AssimpLog previous = currentCapture.get();
+        AssimpLog result = new AssimpLog(isVerbose, previous);
+        currentCapture.set(result);
+
+        return result;
+    }
+
+    /**
+     * Stop capturing on the current thread, restoring any capture that was
+     * current when this one began. The captured messages remain accessible.
+     */
+    void end() {
+        assert currentCapture.get() == this;
+        if (previous == null) {
+            currentCapture.remove();
+        } else {
+            currentCapture.set(previous);
+        }
+
+        synchronized (AssimpLog.class) {
+            if (isVerbose) {
+                assert numVerboseCaptures > 0 : numVerboseCaptures;
+                --numVerboseCaptures;
+                if (numVerboseCaptures == 0) {
+                    Assimp.aiEnableVerboseLogging(false);
+                }
+            }
+            assert numCaptures > 0 : numCaptures;
+            --numCaptures;
+        }
+    }
+
+    /**
+     * Detach the log stream and free its callback. They will be re-created if
+     * needed.
+     *
+     * @throws IllegalStateException if any captures are active
+     */
+    static synchronized void freeCallbacks() {
+        if (numCaptures > 0) {
+            throw new IllegalStateException(
+                    "Can't free the callbacks during an import.");
+        }
+
+        if (logStream != null) {
+            Assimp.aiDetachLogStream(logStream);
+            logStream.free();
+            logProc.free();
+
+            logStream = null;
+            logProc = null;
+        }
+    }
+
+    /**
+     * Return the most recent error message captured.
+     *
+     * @return the message text, or null if none was captured
+     */
+    String lastError() {
+        String result = null;
+        Iterator<String> iterator = messages.descendingIterator();
+        while (iterator.hasNext()) {
+            String message = iterator.next();
+            if (message.startsWith("Error")) {
+                result = message;
+                break;
+            }
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Retain the specified message and, if verbose, forward it to the logger.
+     *
+     * @param message the message text (not null)
+     */
+    private void add(String message) {
+        if (isVerbose) {
+            logger.log(Level.INFO, message);
+        }
+
+        if (messages.size() == maxMessages) {
+            messages.removeFirst();
+        }
+        messages.addLast(message);
+    }
+
+    /**
+     * Callback invoked by Assimp to log a message.
+     *
+     * @param pMessage the address of the null-terminated message text
+     * @param userData ignored
+     */
+    private static void logMessage(long pMessage, long userData) {
+        AssimpLog capture = currentCapture.get();
+        if (capture != null) {
+            String message = MemoryUtil.memUTF8(pMessage).trim();
+            capture.add(message);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.AssetNotFoundException;
+import com.jme3.asset.ModelKey;
+import com.jme3.scene.Spatial;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Import many assets concurrently using a shared AssetManager.
+ * <p>
+ * Concurrency is bounded in 2 ways: by the number of threads (or by the
+ * executor supplied) and by a budget for the native memory that Assimp uses
+ * while importing. Each import's native memory is estimated from a cheap hint
+ * of the size of its main asset (the file or zip-entry size, without reading
+ * the content); an import that would exceed the remaining budget waits for
+ * others to complete, in arrival order. An import larger than the entire
+ * budget runs alone. An import whose size can't be estimated cheaply reserves
+ * a single permit.
+ * <p>
+ * The assets are located using the AssetManager, but the AssetManager's cache
+ * is bypassed, as in {@code ImportPipeline}. Results are returned in the
+ * order of the keys, each with either a model or the reason it couldn't be
+ * loaded, so that one bad asset doesn't abort the batch.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class BatchImporter {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of bytes in a kibibyte, the unit of budget permits
+     */
+    final private static int bytesPerPermit = 1024;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(BatchImporter.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * AssetManager used to locate and load assets
+     */
+    final private AssetManager assetManager;
+    /**
+     * executor for imports, or null to create a pool for each batch
+     */
+    final private ExecutorService executor;
+    /**
+     * estimated native bytes used per byte of main asset
+     */
+    private float expansionFactor = 8f;
+    /**
+     * number of threads in the pool created for each batch (&ge;1)
+     */
+    final private int numThreads;
+    /**
+     * budget for the native memory of concurrent imports (in bytes, &gt;0)
+     */
+    private long memoryBudget = 1L << 31;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an importer that uses one thread per available processor.
+     *
+     * @param assetManager the AssetManager to use (not null, alias created)
+     */
+    public BatchImporter(AssetManager assetManager) {
+        this(assetManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Instantiate an importer that uses the specified number of threads.
+     *
+     * @param assetManager the AssetManager to use (not null, alias created)
+     * @param numThreads the number of threads (&ge;1)
+     */
+    public BatchImporter(AssetManager assetManager, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads = " + numThreads);
+        }
+
+        this.assetManager = assetManager;
+        this.executor = null;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Instantiate an importer that uses the specified executor. The executor
+     * isn't shut down by the importer.
+     *
+     * @param assetManager the AssetManager to use (not null, alias created)
+     * @param executor the executor to use (not null, alias created)
+     */
+    public BatchImporter(AssetManager assetManager, ExecutorService executor) {
+        assert executor != null;
+
+        this.assetManager = assetManager;
+        this.executor = executor;
+        this.numThreads = 0;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Return the estimated number of native bytes used per byte of main
+     * asset.
+     *
+     * @return the factor (&gt;0)
+     */
+    public float expansionFactor() {
+        return expansionFactor;
+    }
+
+    /**
+     * Import the specified assets concurrently and wait for all of them to
+     * complete.
+     *
+     * @param keys the keys of the assets to import (not null, unaffected)
+     * @return a new list of results, in the order of the keys (not null)
+     */
+    public List<ImportResult> importKeys(List<? extends ModelKey> keys) {
+        ExecutorService service = executor;
+        if (service == null) {
+            service = Executors.newFixedThreadPool(
+                    numThreads, (Runnable runnable) -> {
+                        Thread result = new Thread(
+                                runnable, "MonkeyWrench import");
+                        result.setDaemon(true);
+                        return result;
+                    });
+        }
+
+        long maxPermits = Math.max(1L, memoryBudget / bytesPerPermit);
+        int budgetPermits = (int) Math.min(maxPermits, Integer.MAX_VALUE);
+        // A fair semaphore keeps small imports from starving a large one:
+        Semaphore budget = new Semaphore(budgetPermits, true);
+
+        int numKeys = keys.size();
+        List<Future<Spatial>> futures = new ArrayList<>(numKeys);
+        for (ModelKey key : keys) {
+            Future<Spatial> future = service.submit(
+                    () -> importWithinBudget(key, budget, budgetPermits));
+            futures.add(future);
+        }
+
+        List<ImportResult> result = new ArrayList<>(numKeys);
+        boolean interrupted = false;
+        for (int i = 0; i < numKeys; ++i) {
+            ModelKey key = keys.get(i);
+            Future<Spatial> future = futures.get(i);
+            Spatial model = null;
+            Throwable failure = null;
+            try {
+                model = future.get();
+                if (model == null) {
+                    failure = new NullPointerException("No model was loaded.");
+                }
+            } catch (ExecutionException exception) {
+                failure = exception.getCause();
+            } catch (CancellationException exception) {
+                failure = exception;
+            } catch (InterruptedException exception) {
+                // Abandon the imports that haven't started yet:
+                interrupted = true;
+                for (Future<Spatial> f : futures) {
+                    f.cancel(false);
+                }
+                failure = exception;
+            }
+            if (failure != null) {
+                logger.log(Level.WARNING, "Failed to import " + key.getName(),
+                        failure);
+            }
+            result.add(new ImportResult(key, model, failure));
+        }
+
+        if (executor == null) {
+            service.shutdown();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return result;
+    }
+
+    /**
+     * Import the specified assets concurrently, using the default
+     * {@code LwjglAssetKey} options, and wait for all of them to complete.
+     *
+     * @param assetPaths the paths to the assets (not null, unaffected)
+     * @return a new list of results, in the order of the paths (not null)
+     */
+    public List<ImportResult> importPaths(List<String> assetPaths) {
+        List<LwjglAssetKey> keys = new ArrayList<>(assetPaths.size());
+        for (String assetPath : assetPaths) {
+            keys.add(new LwjglAssetKey(assetPath));
+        }
+        List<ImportResult> result = importKeys(keys);
+
+        return result;
+    }
+
+    /**
+     * Return the budget for the native memory of concurrent imports.
+     *
+     * @return the budget (in bytes, &gt;0)
+     */
+    public long memoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Alter the estimated number of native bytes used per byte of main asset.
+     * Assimp's in-memory scene is typically several times larger than the
+     * file it was imported from.
+     *
+     * @param factor the desired factor (&gt;0, default=8)
+     */
+    public void setExpansionFactor(float factor) {
+        if (!(factor > 0f)) {
+            throw new IllegalArgumentException("factor = " + factor);
+        }
+
+        this.expansionFactor = factor;
+    }
+
+    /**
+     * Alter the budget for the native memory of concurrent imports.
+     *
+     * @param numBytes the desired budget (in bytes, &gt;0, default=2 GiB)
+     */
+    public void setMemoryBudget(long numBytes) {
+        if (numBytes <= 0L) {
+            throw new IllegalArgumentException("numBytes = " + numBytes);
+        }
+
+        this.memoryBudget = numBytes;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Estimate the native memory needed to import the specified asset, based
+     * on a cheap size hint. Nothing is read from the asset, so an asset whose
+     * size can't be estimated cheaply reserves a single permit.
+     *
+     * @param info the located asset (not null, unaffected)
+     * @param maxPermits the size of the entire budget (in permits, &ge;1)
+     * @return the estimate (in permits, &ge;1, &le;maxPermits)
+     */
+    private int estimatePermits(AssetInfo info, int maxPermits) {
+        long numBytes = Math.max(0L, AssetFile.sizeHint(info));
+        double estimate = Math.ceil(
+                (double) numBytes * expansionFactor / bytesPerPermit);
+        int result = (int) Math.max(1.0, Math.min(estimate, maxPermits));
+
+        return result;
+    }
+
+    /**
+     * Locate the specified asset, then import and convert it using
+     * lwjgl-assimp once its estimated native memory fits in the budget. The
+     * AssetManager's cache is bypassed.
+     *
+     * @param key the key of the asset (not null)
+     * @param budget the remaining budget (not null)
+     * @param maxPermits the size of the entire budget (in permits, &ge;1)
+     * @return a new scene-graph subtree (not null)
+     * @throws InterruptedException if interrupted while waiting for budget
+     * @throws IOException if lwjgl-assimp fails to import the asset or if the
+     * imported asset cannot be converted to a scene graph
+     */
+    private Spatial importWithinBudget(ModelKey key, Semaphore budget,
+            int maxPermits) throws InterruptedException, IOException {
+        LwjglAssetKey lwjglKey;
+        if (key instanceof LwjglAssetKey) {
+            lwjglKey = (LwjglAssetKey) key;
+        } else {
+            lwjglKey = new LwjglAssetKey(key);
+        }
+        AssetInfo info = assetManager.locateAsset(lwjglKey);
+        if (info == null) {
+            throw new AssetNotFoundException(key.getName());
+        }
+
+        int numPermits = estimatePermits(info, maxPermits);
+        budget.acquire(numPermits);
+        try {
+            ImportedScene imported
+                    = LwjglAssetLoader.importScene(info, lwjglKey);
+            Spatial result
+                    = LwjglAssetLoader.convertScene(imported, () -> false);
+            return result;
+
+        } finally {
+            budget.release(numPermits);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+
+/**
+ * An InputStream that reads from a ByteBuffer, such as a direct buffer or a
+ * memory-mapped file, without copying it.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+class BufferInputStream extends InputStream {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(BufferInputStream.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * the bytes remaining to be read (position tracks the read position)
+     */
+    final private ByteBuffer buffer;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a stream that reads the specified buffer from its current
+     * position to its limit.
+     *
+     * @param buffer the buffer to read (not null, unaffected, do not modify
+     * the content)
+     */
+    BufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+    // *************************************************************************
+    // InputStream methods
+
+    /**
+     * Return the number of bytes remaining.
+     *
+     * @return the count (&ge;0)
+     */
+    @Override
+    public int available() {
+        int result = buffer.remaining();
+        return result;
+    }
+
+    /**
+     * Read a single byte.
+     *
+     * @return the byte value (&ge;0, &le;255) or -1 at the end of the stream
+     */
+    @Override
+    public int read() {
+        int result = -1;
+        if (buffer.hasRemaining()) {
+            result = buffer.get() & 0xff;
+        }
+
+        return result;
+    }
+
+    /**
+     * Read up to the specified number of bytes into the specified array.
+     *
+     * @param destination the array to fill (not null, modified)
+     * @param offset the index of the first element to fill (&ge;0)
+     * @param length the maximum number of bytes to read (&ge;0)
+     * @return the number of bytes read, or -1 at the end of the stream
+     */
+    @Override
+    public int read(byte[] destination, int offset, int length) {
+        int result = -1;
+        if (length == 0) {
+            result = 0;
+        } else if (buffer.hasRemaining()) {
+            result = Math.min(length, buffer.remaining());
+            buffer.get(destination, offset, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Skip over up to the specified number of bytes.
+     *
+     * @param numBytes the desired number of bytes to skip
+     * @return the number of bytes skipped (&ge;0)
+     */
+    @Override
+    public long skip(long numBytes) {
+        int result = (int) Math.max(0L, Math.min(numBytes, buffer.remaining()));
+        buffer.position(buffer.position() + result);
+
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.scene.Spatial;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A load that can be abandoned between stages, for use with the asynchronous
+ * APIs.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+@FunctionalInterface
+interface CancellableLoad {
+    /**
+     * Perform the load on the current thread.
+     *
+     * @param cancelCheck tests whether the load has been cancelled (not null)
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if the asset cannot be loaded
+     * @throws java.util.concurrent.CancellationException if the load was
+     * cancelled
+     */
+    Spatial load(BooleanSupplier cancelCheck) throws IOException;
+
+    /**
+     * Perform the load on the specified executor. Completing the returned
+     * future by any means (including {@code cancel()}) causes the load to be
+     * abandoned at the next stage boundary.
+     *
+     * @param executor the executor to use (not null)
+     * @return a new future (not null)
+     */
+    default CompletableFuture<Spatial> submitTo(Executor executor) {
+        CompletableFuture<Spatial> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (!result.isDone()) { // not cancelled before it started
+                try {
+                    Spatial spatial = load(result::isDone);
+                    result.complete(spatial);
+                } catch (Throwable throwable) { // the future must complete
+                    result.completeExceptionally(throwable);
+                }
+            }
+        });
+
+        return result;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.util.BufferUtils;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * An optional process-wide cache of asset content, shared by all imports, so
+ * that files referenced by many models (such as a shared texture folder or a
+ * shared glTF buffer) are read only once.
+ * <p>
+ * Content is keyed by asset path and by the identity of the AssetManager that
+ * located it. Content is held outside the Java heap, in direct buffers owned by
+ * the cache, and is evicted in least-recently-used order whenever the total
+ * size exceeds the byte budget. Memory-mapped content is copied before it's
+ * cached, since a mapping becomes unsafe to read if its file is later
+ * truncated or replaced. The cache is disabled by default.
+ * <p>
+ * If locators are registered or unregistered after content is cached, the
+ * application should invoke {@link #clear()}.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class ContentCache {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ContentCache.class.getName());
+    /**
+     * map keys to content, in least-recently-used order
+     */
+    final private static LinkedHashMap<AssetCacheKey, ByteBuffer> map
+            = new LinkedHashMap<>(16, 0.75f, true);
+    // *************************************************************************
+    // fields
+
+    /**
+     * number of successful lookups since the counters were last reset
+     */
+    private static long numHits = 0L;
+    /**
+     * number of unsuccessful lookups since the counters were last reset
+     */
+    private static long numMisses = 0L;
+    /**
+     * maximum number of content bytes to retain (&ge;0, 0 &rarr; disabled)
+     */
+    private static long maxBytes = 0L;
+    /**
+     * total number of content bytes currently retained (&ge;0)
+     */
+    private static long totalBytes = 0L;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private ContentCache() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Remove all content from the cache. The byte budget and the counters are
+     * unaffected.
+     */
+    public static synchronized void clear() {
+        map.clear();
+        totalBytes = 0L;
+    }
+
+    /**
+     * Return the number of successful lookups since the counters were last
+     * reset.
+     *
+     * @return the count (&ge;0)
+     */
+    public static synchronized long countHits() {
+        return numHits;
+    }
+
+    /**
+     * Return the number of unsuccessful lookups since the counters were last
+     * reset.
+     *
+     * @return the count (&ge;0)
+     */
+    public static synchronized long countMisses() {
+        return numMisses;
+    }
+
+    /**
+     * Look up the content of the specified asset.
+     *
+     * @param assetManager the AssetManager that located the asset (not null,
+     * unaffected)
+     * @param assetPath the asset path (not null)
+     * @return a new buffer that shares content with the cache, positioned at
+     * the start of the content, or null if the asset isn't cached or if the
+     * cache is disabled
+     */
+    static synchronized ByteBuffer get(
+            AssetManager assetManager, String assetPath) {
+        ByteBuffer result = null;
+        if (maxBytes > 0L) {
+            AssetCacheKey key = new AssetCacheKey(assetManager, assetPath);
+            ByteBuffer content = map.get(key);
+            if (content == null) {
+                ++numMisses;
+            } else {
+                ++numHits;
+                result = content.duplicate();
+                result.rewind();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the cache is enabled.
+     *
+     * @return true if enabled, otherwise false
+     */
+    public static synchronized boolean isEnabled() {
+        boolean result = (maxBytes > 0L);
+        return result;
+    }
+
+    /**
+     * Return the byte budget.
+     *
+     * @return the maximum number of content bytes to retain (&ge;0, 0 means
+     * the cache is disabled)
+     */
+    public static synchronized long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Add the content of the specified asset to the cache, if the cache is
+     * enabled and the content fits within the byte budget. Memory-mapped
+     * content (as identified by {@link AssetFile#isMapped(ByteBuffer)}) is
+     * copied outside the cache's lock; other content is retained as-is.
+     *
+     * @param assetManager the AssetManager that located the asset (not null,
+     * alias created)
+     * @param assetPath the asset path (not null)
+     * @param content the content to add (not null, alias created unless
+     * mapped, do not modify the content)
+     */
+    static void put(
+            AssetManager assetManager, String assetPath, ByteBuffer content) {
+        int numBytes = content.capacity();
+        if (numBytes <= maxBytes()) {
+            ByteBuffer ownedContent = content;
+            if (AssetFile.isMapped(content)) {
+                ownedContent = BufferUtils.createByteBuffer(numBytes);
+                MemoryUtil.memCopy(MemoryUtil.memAddress0(content),
+                        MemoryUtil.memAddress0(ownedContent), numBytes);
+            }
+
+            AssetCacheKey key = new AssetCacheKey(assetManager, assetPath);
+            putOwned(key, ownedContent);
+        }
+    }
+
+    /**
+     * Reset the hit and miss counters to zero.
+     */
+    public static synchronized void resetCounters() {
+        numHits = 0L;
+        numMisses = 0L;
+    }
+
+    /**
+     * Alter the byte budget. If the cache currently holds more than the new
+     * budget, least-recently-used content is evicted immediately.
+     *
+     * @param numBytes the desired maximum number of content bytes to retain
+     * (&ge;0, 0 &rarr; disable the cache, default=0)
+     */
+    public static synchronized void setMaxBytes(long numBytes) {
+        if (numBytes < 0L) {
+            throw new IllegalArgumentException("numBytes = " + numBytes);
+        }
+
+        maxBytes = numBytes;
+        evict();
+    }
+
+    /**
+     * Return the total size of the retained content.
+     *
+     * @return the number of bytes (&ge;0)
+     */
+    public static synchronized long totalBytes() {
+        return totalBytes;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Evict least-recently-used content until the total size is within the
+     * byte budget. Evicted content remains valid for any files that are still
+     * reading it.
+     */
+    private static void evict() {
+        Iterator<Map.Entry<AssetCacheKey, ByteBuffer>> iterator
+                = map.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<AssetCacheKey, ByteBuffer> entry = iterator.next();
+            int numBytes = entry.getValue().capacity();
+            iterator.remove();
+            totalBytes -= numBytes;
+
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Evicted {0} ({1} bytes).",
+                        new Object[]{entry.getKey().assetPath(), numBytes});
+            }
+        }
+        assert totalBytes >= 0L : totalBytes;
+    }
+
+    /**
+     * Add content that the cache may retain indefinitely, if it still fits
+     * within the byte budget.
+     *
+     * @param key the key of the asset (not null, alias created)
+     * @param content the content to add (not null, not mapped, alias
+     * created)
+     */
+    private static synchronized void putOwned(
+            AssetCacheKey key, ByteBuffer content) {
+        int numBytes = content.capacity();
+        if (numBytes <= maxBytes) {
+            ByteBuffer oldContent = map.put(key, content);
+            if (oldContent != null) {
+                totalBytes -= oldContent.capacity();
+            }
+            totalBytes += numBytes;
+            evict();
+        }
+    }
+}
@@ -61,6 +61,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jme3utilities.MySpatial;
@@ -289,24 +291,46 @@ final class ConversionUtils {
 
     /**
      * Convert the specified embedded textures to JMonkeyEngine textures.
+     * <p>
+     * Compressed images are copied out of the AIScene and then decompressed
+     * concurrently using the common fork-join pool, so decoding can overlap
+     * mesh conversion. Uncompressed images are converted immediately.
      *
      * @param pTextures the Assimp textures to convert (not null, unaffected)
      * @param loadFlags post-processing flags that were passed to
      * {@code aiImportFile()}
-     * @return a new array of new instances
-     * @throws IOException if AWTLoader fails to convert a compressed image
+     * @return a new collection of new instances (not null)
+     * @throws IOException if an uncompressed image can't be converted
      */
-    static Texture[] convertTextures(PointerBuffer pTextures, int loadFlags)
-            throws IOException {
+    static EmbeddedTextures convertTextures(
+            PointerBuffer pTextures, int loadFlags) throws IOException {
         int numTextures = pTextures.capacity();
-        Texture[] result = new Texture[numTextures];
+        EmbeddedTextures result = new EmbeddedTextures(numTextures);
 
         boolean flipY = (loadFlags & Assimp.aiProcess_FlipUVs) == 0x0;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
         for (int textureIndex = 0; textureIndex < numTextures; ++textureIndex) {
             long handle = pTextures.get(textureIndex);
             AITexture aiTexture = AITexture.createSafe(handle);
-            Texture jmeTexture = convertTexture(aiTexture, flipY);
-            result[textureIndex] = jmeTexture;
+            int height = aiTexture.mHeight();
+            if (height == 0) { // a compressed image, try AWTLoader:
+                int numBytes = aiTexture.mWidth();
+                long address = aiTexture.pcData().address();
+                ByteBuffer wrappedBuffer
+                        = MemoryUtil.memByteBufferSafe(address, numBytes);
+                byte[] byteArray = new byte[numBytes];
+                wrappedBuffer.get(byteArray);
+
+                ForkJoinTask<Texture> task = pool.submit(() -> {
+                    Image image = decompressImage(byteArray, flipY);
+                    return new Texture2D(image);
+                });
+                result.setPending(textureIndex, task);
+
+            } else {
+                Texture jmeTexture = convertTexture(aiTexture, flipY);
+                result.set(textureIndex, jmeTexture);
+            }
         }
 
         return result;
@@ -605,53 +629,45 @@ final class ConversionUtils {
     }
 
     /**
-     * Convert the specified embedded texture to a JMonkeyEngine texture.
+     * Convert the specified uncompressed embedded texture to a JMonkeyEngine
+     * texture.
      *
      * @param aiTexture the Assimp texture to convert (not null, unaffected)
      * @param flipY true to reverse the Y coordinates of image data, false to
      * leave them unflipped
      * @return a new instance (not null)
-     * @throws IOException if AWTLoader fails to decompress an image
+     * @throws IOException if the texture has a negative dimension
      */
     private static Texture convertTexture(AITexture aiTexture, boolean flipY)
             throws IOException {
         int width = aiTexture.mWidth();
         int height = aiTexture.mHeight();
-
-        AITexel.Buffer pcData = aiTexture.pcData();
-        Image image;
-        if (height == 0) { // a compressed image, try AWTLoader:
-            ByteBuffer wrappedBuffer
-                    = MemoryUtil.memByteBufferSafe(pcData.address(), width);
-            image = decompressImage(wrappedBuffer, flipY);
-
-        } else if (height < 0 || width < 0) {
+        if (height < 0 || width < 0) {
             throw new IOException("Embedded texture has a negative dimension!");
-
-        } else { // an array of texels in R8G8B8A8 format:
-            image = convertImage(pcData, width, height, flipY);
         }
+
+        // an array of texels in R8G8B8A8 format:
+        AITexel.Buffer pcData = aiTexture.pcData();
+        Image image = convertImage(pcData, width, height, flipY);
         Texture result = new Texture2D(image);
 
         return result;
     }
 
     /**
-     * Decompress the specified compressed image using AWTLoader.
+     * Decompress the specified compressed image using AWTLoader. May be
+     * invoked from any thread.
      *
-     * @param byteBuffer the compressed image data to convert (not null)
+     * @param byteArray the compressed image data to convert (not null,
+     * unaffected)
      * @param flipY true to reverse the Y coordinates of image data, false to
      * leave them unflipped
      * @return a new instance (not null)
      * @throws IOException if AWTLoader fails to decompress the image
      */
     private static Image decompressImage(
-            ByteBuffer byteBuffer, boolean flipY) throws IOException {
-        int numBytes = byteBuffer.capacity();
-        byte[] byteArray = new byte[numBytes];
-        for (int i = 0; i < numBytes; ++i) {
-            byteArray[i] = byteBuffer.get(i);
-        }
+            byte[] byteArray, boolean flipY) throws IOException {
+        int numBytes = byteArray.length;
         InputStream awtStream = new ByteArrayInputStream(byteArray);
 
         AWTLoader awtLoader = new AWTLoader();
@@ -0,0 +1,150 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.texture.Texture;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Logger;
+
+/**
+ * The embedded textures of an imported scene, some of which may still be
+ * decoding asynchronously. Textures are indexed in the same order as the
+ * {@code mTextures} array of the AIScene, regardless of the order in which
+ * their decoding completes.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class EmbeddedTextures {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(EmbeddedTextures.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * pending decode tasks, indexed by texture index (null elements for
+     * textures that are already available)
+     */
+    final private ForkJoinTask<?>[] tasks;
+    /**
+     * available textures, indexed by texture index (null elements for
+     * textures that are still pending)
+     */
+    final private Texture[] textures;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a collection with the specified number of textures, none of
+     * which are available yet.
+     *
+     * @param numTextures the number of textures (&ge;0)
+     */
+    EmbeddedTextures(int numTextures) {
+        assert numTextures >= 0 : numTextures;
+
+        this.tasks = new ForkJoinTask<?>[numTextures];
+        this.textures = new Texture[numTextures];
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the indexed texture, waiting for its decoding to complete if
+     * necessary.
+     *
+     * @param textureIndex the index of the texture (&ge;0)
+     * @return the pre-existing instance (not null)
+     * @throws IOException if the texture couldn't be decoded
+     */
+    Texture get(int textureIndex) throws IOException {
+        Texture result = textures[textureIndex];
+        if (result == null) {
+            ForkJoinTask<?> task = tasks[textureIndex];
+            assert task != null : textureIndex;
+            try {
+                result = (Texture) task.get();
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new IOException(cause);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while decoding texture #"
+                        + textureIndex + ".");
+            }
+
+            textures[textureIndex] = result;
+            tasks[textureIndex] = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Store an available texture.
+     *
+     * @param textureIndex the index of the texture (&ge;0)
+     * @param texture the texture to store (not null, alias created)
+     */
+    void set(int textureIndex, Texture texture) {
+        assert texture != null;
+
+        textures[textureIndex] = texture;
+        tasks[textureIndex] = null;
+    }
+
+    /**
+     * Store a texture that's being decoded asynchronously.
+     *
+     * @param textureIndex the index of the texture (&ge;0)
+     * @param task the task that's decoding the texture (not null, alias
+     * created)
+     */
+    void setPending(int textureIndex, ForkJoinTask<Texture> task) {
+        assert task != null;
+
+        textures[textureIndex] = null;
+        tasks[textureIndex] = task;
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.AssetNotFoundException;
+import com.jme3.asset.ModelKey;
+import com.jme3.scene.Spatial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Import many assets using a 2-stage pipeline, so that Assimp can import one
+ * asset while the previous one is being converted to a scene graph.
+ * <p>
+ * The import stage runs on a dedicated thread and the conversion stage runs
+ * on the invoking thread. Imported scenes wait between the stages in a
+ * bounded queue, which caps the native memory held by the pipeline: at most
+ * {@code queueCapacity + 2} scenes exist at any moment. When the stages take
+ * similar times, a batch completes in roughly the time of the slower stage
+ * rather than the sum of both stages.
+ * <p>
+ * The assets are located using the AssetManager, but the AssetManager's cache
+ * is bypassed. Results are returned in the order of the keys. Instances
+ * aren't thread-safe.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class ImportPipeline {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ImportPipeline.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * AssetManager used to locate assets and load textures
+     */
+    final private AssetManager assetManager;
+    /**
+     * maximum number of imported scenes waiting to be converted (&ge;1)
+     */
+    final private int queueCapacity;
+    /**
+     * time the conversion stage spent converting during the most recent
+     * batch (in nanoseconds)
+     */
+    private long convertBusyNanos;
+    /**
+     * time the conversion stage spent waiting for imported scenes during the
+     * most recent batch (in nanoseconds)
+     */
+    private long convertWaitNanos;
+    /**
+     * time the import stage spent locating and importing during the most
+     * recent batch (in nanoseconds)
+     */
+    private long importBusyNanos;
+    /**
+     * time the import stage spent waiting for space in the queue during the
+     * most recent batch (in nanoseconds)
+     */
+    private long importWaitNanos;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a pipeline with a queue capacity of 2.
+     *
+     * @param assetManager the AssetManager to use (not null, alias created)
+     */
+    public ImportPipeline(AssetManager assetManager) {
+        this(assetManager, 2);
+    }
+
+    /**
+     * Instantiate a pipeline with the specified queue capacity.
+     *
+     * @param assetManager the AssetManager to use (not null, alias created)
+     * @param queueCapacity the maximum number of imported scenes waiting to
+     * be converted (&ge;1)
+     */
+    public ImportPipeline(AssetManager assetManager, int queueCapacity) {
+        assert assetManager != null;
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "queueCapacity = " + queueCapacity);
+        }
+
+        this.assetManager = assetManager;
+        this.queueCapacity = queueCapacity;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Return the time the conversion stage spent converting during the most
+     * recent batch.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long convertBusyNanos() {
+        return convertBusyNanos;
+    }
+
+    /**
+     * Return the time the conversion stage spent waiting for imported scenes
+     * during the most recent batch.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long convertWaitNanos() {
+        return convertWaitNanos;
+    }
+
+    /**
+     * Return the time the import stage spent locating and importing assets
+     * during the most recent batch.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long importBusyNanos() {
+        return importBusyNanos;
+    }
+
+    /**
+     * Import and convert the specified assets and wait for all of them to
+     * complete.
+     *
+     * @param keys the keys of the assets to import (not null, unaffected)
+     * @return a new list of results, in the order of the keys (not null)
+     */
+    public List<ImportResult> importKeys(List<? extends ModelKey> keys) {
+        this.convertBusyNanos = 0L;
+        this.convertWaitNanos = 0L;
+        this.importBusyNanos = 0L;
+        this.importWaitNanos = 0L;
+
+        BlockingQueue<CompletableFuture<ImportedScene>> queue
+                = new ArrayBlockingQueue<>(queueCapacity);
+        Thread importer = new Thread(
+                () -> runImportStage(keys, queue), "MonkeyWrench import");
+        importer.setDaemon(true);
+        importer.start();
+
+        int numKeys = keys.size();
+        List<ImportResult> result = new ArrayList<>(numKeys);
+        InterruptedException interruption = null;
+        try {
+            for (ModelKey key : keys) {
+                Spatial model = null;
+                Throwable failure = interruption;
+                if (interruption == null) {
+                    long takeNanos = System.nanoTime();
+                    try {
+                        CompletableFuture<ImportedScene> item = queue.take();
+                        long startNanos = System.nanoTime();
+                        convertWaitNanos += startNanos - takeNanos;
+                        try {
+                            ImportedScene imported = item.get();
+                            model = LwjglAssetLoader.convertScene(
+                                    imported, () -> false);
+                        } finally {
+                            convertBusyNanos += System.nanoTime() - startNanos;
+                        }
+                        if (model == null) {
+                            failure = new NullPointerException(
+                                    "No model was loaded.");
+                        }
+                    } catch (ExecutionException exception) {
+                        failure = exception.getCause();
+                    } catch (InterruptedException exception) {
+                        // Abandon the imports that haven't started yet:
+                        interruption = exception;
+                        importer.interrupt();
+                        failure = exception;
+                    } catch (Exception exception) {
+                        failure = exception;
+                    }
+                }
+                if (failure != null && failure != interruption) {
+                    logger.log(Level.WARNING,
+                            "Failed to import " + key.getName(), failure);
+                }
+                result.add(new ImportResult(key, model, failure));
+            }
+
+        } finally { // Stop the import stage and release any leftover scenes:
+            importer.interrupt();
+            boolean interrupted = (interruption != null);
+            while (importer.isAlive()) {
+                try {
+                    importer.join();
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+            for (CompletableFuture<ImportedScene> item : queue) {
+                release(item);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "{0}", this);
+        }
+
+        return result;
+    }
+
+    /**
+     * Import and convert the specified assets, using the default
+     * {@code LwjglAssetKey} options, and wait for all of them to complete.
+     *
+     * @param assetPaths the paths to the assets (not null, unaffected)
+     * @return a new list of results, in the order of the paths (not null)
+     */
+    public List<ImportResult> importPaths(List<String> assetPaths) {
+        List<LwjglAssetKey> keys = new ArrayList<>(assetPaths.size());
+        for (String assetPath : assetPaths) {
+            keys.add(new LwjglAssetKey(assetPath));
+        }
+        List<ImportResult> result = importKeys(keys);
+
+        return result;
+    }
+
+    /**
+     * Return the time the import stage spent waiting for space in the queue
+     * during the most recent batch.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long importWaitNanos() {
+        return importWaitNanos;
+    }
+
+    /**
+     * Return the maximum number of imported scenes waiting to be converted.
+     *
+     * @return the capacity (&ge;1)
+     */
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+    // *************************************************************************
+    // Object methods
+
+    /**
+     * Describe the stage timings of the most recent batch.
+     *
+     * @return descriptive string of text (not null, not empty)
+     */
+    @Override
+    public String toString() {
+        String result = String.format("import stage: busy=%.3f ms,"
+                + " waiting=%.3f ms; conversion stage: busy=%.3f ms,"
+                + " waiting=%.3f ms", importBusyNanos * 1e-6,
+                importWaitNanos * 1e-6, convertBusyNanos * 1e-6,
+                convertWaitNanos * 1e-6);
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Release the imported data of the specified queue item, if any.
+     *
+     * @param item the item to release (not null)
+     */
+    private static void release(CompletableFuture<ImportedScene> item) {
+        if (item.isDone() && !item.isCompletedExceptionally()) {
+            ImportedScene imported = item.join();
+            imported.release();
+        }
+    }
+
+    /**
+     * Import each of the specified assets and enqueue the outcomes, in order.
+     * Invoked on the import thread. Every key yields exactly one queue item
+     * unless the thread is interrupted.
+     *
+     * @param keys the keys of the assets to import (not null, unaffected)
+     * @param queue the queue to fill (not null, added to)
+     */
+    private void runImportStage(List<? extends ModelKey> keys,
+            BlockingQueue<CompletableFuture<ImportedScene>> queue) {
+        for (ModelKey key : keys) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            long startNanos = System.nanoTime();
+            CompletableFuture<ImportedScene> item = new CompletableFuture<>();
+            try {
+                LwjglAssetKey lwjglKey;
+                if (key instanceof LwjglAssetKey) {
+                    lwjglKey = (LwjglAssetKey) key;
+                } else {
+                    lwjglKey = new LwjglAssetKey(key);
+                }
+                AssetInfo info = assetManager.locateAsset(lwjglKey);
+                if (info == null) {
+                    throw new AssetNotFoundException(key.getName());
+                }
+                ImportedScene imported
+                        = LwjglAssetLoader.importScene(info, lwjglKey);
+                item.complete(imported);
+
+            } catch (Throwable throwable) { // every key must yield an item
+                item.completeExceptionally(throwable);
+            }
+
+            long putNanos = System.nanoTime();
+            importBusyNanos += putNanos - startNanos;
+            try {
+                queue.put(item);
+            } catch (InterruptedException exception) {
+                release(item);
+                break;
+            }
+            importWaitNanos += System.nanoTime() - putNanos;
+        }
+    }
+}
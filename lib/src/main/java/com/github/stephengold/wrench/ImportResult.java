@@ -0,0 +1,139 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.ModelKey;
+import com.jme3.scene.Spatial;
+import java.util.logging.Logger;
+
+/**
+ * The outcome of importing a single asset as part of a batch: either a model
+ * or else the reason it couldn't be loaded. Immutable.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class ImportResult {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ImportResult.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * key of the asset
+     */
+    final private ModelKey key;
+    /**
+     * loaded model, or null if the import failed
+     */
+    final private Spatial model;
+    /**
+     * reason the import failed, or null if it succeeded
+     */
+    final private Throwable failure;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a result.
+     *
+     * @param key the key of the asset (not null, alias created)
+     * @param model the loaded model (alias created) or null if the import
+     * failed
+     * @param failure the reason the import failed (alias created) or null if
+     * it succeeded
+     */
+    ImportResult(ModelKey key, Spatial model, Throwable failure) {
+        assert key != null;
+        assert (model == null) != (failure == null);
+
+        this.key = key;
+        this.model = model;
+        this.failure = failure;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the reason the import failed.
+     *
+     * @return the pre-existing exception or error, or null if the import
+     * succeeded
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Access the key of the asset.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    public ModelKey getKey() {
+        return key;
+    }
+
+    /**
+     * Access the loaded model.
+     *
+     * @return the pre-existing instance, or null if the import failed
+     */
+    public Spatial getModel() {
+        return model;
+    }
+
+    /**
+     * Test whether the import succeeded.
+     *
+     * @return true if a model was loaded, otherwise false
+     */
+    public boolean isSuccess() {
+        boolean result = (model != null);
+        return result;
+    }
+    // *************************************************************************
+    // Object methods
+
+    /**
+     * Represent the result as a text string.
+     *
+     * @return descriptive string of text (not null, not empty)
+     */
+    @Override
+    public String toString() {
+        String result = key.getName() + ": "
+                + (isSuccess() ? "loaded" : "failed with " + failure);
+        return result;
+    }
+}
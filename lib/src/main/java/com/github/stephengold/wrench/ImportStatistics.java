@@ -0,0 +1,436 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import java.util.logging.Logger;
+
+/**
+ * Statistics that describe what the virtual filesystem did during a single
+ * import, plus overall timings, to help determine whether a slow load is
+ * bound by locators, by I/O, by Assimp, or by conversion.
+ * <p>
+ * Instances are populated by the library and then delivered to an
+ * {@code ImportListener}. Once delivered, they don't change.
+ * <p>
+ * Nanosecond timings are measured only when a listener is registered.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class ImportStatistics {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ImportStatistics.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * true if the import and conversion both succeeded, otherwise false
+     */
+    private boolean isSuccess;
+    /**
+     * total time spent in filesystem callbacks invoked by Assimp (in
+     * nanoseconds)
+     */
+    private long callbackNanos;
+    /**
+     * time spent converting the imported data to a scene graph (in
+     * nanoseconds)
+     */
+    private long conversionNanos;
+    /**
+     * time spent decompressing gzip-compressed assets (in nanoseconds)
+     */
+    private long decompressNanos;
+    /**
+     * time spent in Assimp's import function, including callbacks (in
+     * nanoseconds)
+     */
+    private long importNanos;
+    /**
+     * time spent locating assets, including probes for missing ones (in
+     * nanoseconds)
+     */
+    private long locateNanos;
+    /**
+     * number of bytes produced by decompressing gzip-compressed assets
+     */
+    private long numBytesDecompressed;
+    /**
+     * number of content bytes read from asset streams
+     */
+    private long numBytesIngested;
+    /**
+     * number of content bytes delivered to Assimp by read callbacks
+     */
+    private long numBytesRead;
+    /**
+     * number of asset lookups satisfied by a content cache
+     */
+    private long numCacheHits;
+    /**
+     * number of gzip-compressed assets decompressed in memory
+     */
+    private long numFilesDecompressed;
+    /**
+     * number of files opened by Assimp
+     */
+    private long numFilesOpened;
+    /**
+     * number of asset lookups that found nothing, including those answered
+     * by a negative-lookup cache
+     */
+    private long numMissedLookups;
+    /**
+     * number of read callbacks
+     */
+    private long numReadCalls;
+    /**
+     * number of seek callbacks
+     */
+    private long numSeekCalls;
+    /**
+     * number of tell and size callbacks
+     */
+    private long numTellCalls;
+    /**
+     * time spent reading content from asset streams (in nanoseconds)
+     */
+    private long readNanos;
+    /**
+     * the path to the main asset
+     */
+    final private String assetPath;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a zeroed set of statistics.
+     *
+     * @param assetPath the path to the main asset (not null)
+     */
+    ImportStatistics(String assetPath) {
+        assert assetPath != null;
+        this.assetPath = assetPath;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Count an asset lookup satisfied by a content cache.
+     */
+    void addCacheHit() {
+        ++numCacheHits;
+    }
+
+    /**
+     * Count a gzip-compressed asset that was decompressed in memory.
+     *
+     * @param numBytes the number of bytes produced (&ge;0)
+     * @param nanos the time spent decompressing (in nanoseconds, &ge;0)
+     */
+    void addDecompression(long numBytes, long nanos) {
+        ++numFilesDecompressed;
+        numBytesDecompressed += numBytes;
+        decompressNanos += nanos;
+    }
+
+    /**
+     * Accumulate the counts and timings of a closed file.
+     *
+     * @param numReads the number of read callbacks (&ge;0)
+     * @param numSeeks the number of seek callbacks (&ge;0)
+     * @param numTells the number of tell and size callbacks (&ge;0)
+     * @param numBytes the number of bytes delivered (&ge;0)
+     * @param nanos the time spent in callbacks (in nanoseconds, &ge;0)
+     */
+    void addFile(long numReads, long numSeeks, long numTells, long numBytes,
+            long nanos) {
+        numReadCalls += numReads;
+        numSeekCalls += numSeeks;
+        numTellCalls += numTells;
+        numBytesRead += numBytes;
+        callbackNanos += nanos;
+    }
+
+    /**
+     * Count an asset lookup that found nothing.
+     *
+     * @param nanos the time spent locating (in nanoseconds, &ge;0)
+     */
+    void addMiss(long nanos) {
+        ++numMissedLookups;
+        locateNanos += nanos;
+    }
+
+    /**
+     * Count an open callback.
+     *
+     * @param nanos the time spent in the callback (in nanoseconds, &ge;0)
+     */
+    void addOpen(long nanos) {
+        ++numFilesOpened;
+        callbackNanos += nanos;
+    }
+
+    /**
+     * Count content read from an asset stream.
+     *
+     * @param numBytes the number of bytes read (&ge;0)
+     * @param locateNanos the time spent locating the asset (in nanoseconds,
+     * &ge;0)
+     * @param readNanos the time spent reading (in nanoseconds, &ge;0)
+     */
+    void addRead(long numBytes, long locateNanos, long readNanos) {
+        numBytesIngested += numBytes;
+        this.locateNanos += locateNanos;
+        this.readNanos += readNanos;
+    }
+
+    /**
+     * Return the path to the main asset.
+     *
+     * @return the path (not null)
+     */
+    public String assetPath() {
+        return assetPath;
+    }
+
+    /**
+     * Return the total time spent in filesystem callbacks invoked by Assimp.
+     * This includes the time to locate and read assets that weren't cached.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long callbackNanos() {
+        return callbackNanos;
+    }
+
+    /**
+     * Return the time spent converting the imported data to a scene graph.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long conversionNanos() {
+        return conversionNanos;
+    }
+
+    /**
+     * Return the number of bytes produced by decompressing gzip-compressed
+     * assets in memory.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countBytesDecompressed() {
+        return numBytesDecompressed;
+    }
+
+    /**
+     * Return the number of content bytes read from asset streams.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countBytesIngested() {
+        return numBytesIngested;
+    }
+
+    /**
+     * Return the number of content bytes delivered to Assimp.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countBytesRead() {
+        return numBytesRead;
+    }
+
+    /**
+     * Return the number of asset lookups satisfied by a content cache.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countCacheHits() {
+        return numCacheHits;
+    }
+
+    /**
+     * Return the number of gzip-compressed assets decompressed in memory.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countFilesDecompressed() {
+        return numFilesDecompressed;
+    }
+
+    /**
+     * Return the number of files opened by Assimp.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countFilesOpened() {
+        return numFilesOpened;
+    }
+
+    /**
+     * Return the number of asset lookups that found nothing.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countMissedLookups() {
+        return numMissedLookups;
+    }
+
+    /**
+     * Return the number of read callbacks.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countReadCalls() {
+        return numReadCalls;
+    }
+
+    /**
+     * Return the number of seek callbacks.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countSeekCalls() {
+        return numSeekCalls;
+    }
+
+    /**
+     * Return the number of tell and file-size callbacks.
+     *
+     * @return the count (&ge;0)
+     */
+    public long countTellCalls() {
+        return numTellCalls;
+    }
+
+    /**
+     * Return the time spent decompressing gzip-compressed assets in memory.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long decompressNanos() {
+        return decompressNanos;
+    }
+
+    /**
+     * Return the time spent in Assimp's import function, including callbacks
+     * and (if enabled) prefetching.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long importNanos() {
+        return importNanos;
+    }
+
+    /**
+     * Test whether the import and conversion both succeeded. Failed and
+     * cancelled imports are reported to listeners as well.
+     *
+     * @return true if successful, otherwise false
+     */
+    public boolean isSuccess() {
+        return isSuccess;
+    }
+
+    /**
+     * Return the time spent locating assets.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long locateNanos() {
+        return locateNanos;
+    }
+
+    /**
+     * Return the time spent reading content from asset streams.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    public long readNanos() {
+        return readNanos;
+    }
+
+    /**
+     * Record whether the import and conversion both succeeded.
+     *
+     * @param success true if both succeeded, otherwise false
+     */
+    void setSuccess(boolean success) {
+        this.isSuccess = success;
+    }
+
+    /**
+     * Record the overall timings.
+     *
+     * @param importNanos the time spent in Assimp's import function (in
+     * nanoseconds, &ge;0)
+     * @param conversionNanos the time spent converting (in nanoseconds,
+     * &ge;0)
+     */
+    void setTimings(long importNanos, long conversionNanos) {
+        this.importNanos = importNanos;
+        this.conversionNanos = conversionNanos;
+    }
+    // *************************************************************************
+    // Object methods
+
+    /**
+     * Represent the statistics as a text string.
+     *
+     * @return descriptive string of text (not null, not empty)
+     */
+    @Override
+    public String toString() {
+        String result = String.format("%s (%s): opened %d file%s"
+                + " (%d cache hit%s, %d missed lookup%s),"
+                + " ingested %d bytes (%d decompressed from %d file%s),"
+                + " read %d bytes (%d reads, %d seeks, %d tells);"
+                + " locate=%.3f ms, stream=%.3f ms, decompress=%.3f ms,"
+                + " callbacks=%.3f ms, import=%.3f ms, conversion=%.3f ms",
+                assetPath, isSuccess ? "succeeded" : "failed",
+                numFilesOpened, (numFilesOpened == 1L) ? "" : "s",
+                numCacheHits, (numCacheHits == 1L) ? "" : "s",
+                numMissedLookups, (numMissedLookups == 1L) ? "" : "s",
+                numBytesIngested, numBytesDecompressed, numFilesDecompressed,
+                (numFilesDecompressed == 1L) ? "" : "s", numBytesRead,
+                numReadCalls, numSeekCalls, numTellCalls,
+                locateNanos * 1e-6, readNanos * 1e-6, decompressNanos * 1e-6,
+                callbackNanos * 1e-6, importNanos * 1e-6,
+                conversionNanos * 1e-6);
+
+        return result;
+    }
+}
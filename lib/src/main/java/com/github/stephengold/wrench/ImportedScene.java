@@ -0,0 +1,159 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetInfo;
+import java.util.logging.Logger;
+import org.lwjgl.assimp.AIScene;
+import org.lwjgl.assimp.Assimp;
+
+/**
+ * An asset that Assimp has imported but that hasn't yet been converted to a
+ * scene graph. Holds native memory until released.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ImportedScene {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ImportedScene.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * data imported by lwjgl-assimp, or null once released
+     */
+    private AIScene aiScene;
+    /**
+     * the located main asset
+     */
+    final private AssetInfo info;
+    /**
+     * statistics about the import
+     */
+    final private ImportStatistics statistics;
+    /**
+     * time spent in Assimp's import function (in nanoseconds)
+     */
+    final private long importNanos;
+    /**
+     * key used to load the main asset
+     */
+    final private LwjglAssetKey key;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an imported scene.
+     *
+     * @param aiScene the imported data (not null, alias created)
+     * @param info the located main asset (not null, alias created)
+     * @param key the key used to load the main asset (not null, alias
+     * created)
+     * @param statistics statistics about the import (not null, alias created)
+     * @param importNanos the time spent importing (in nanoseconds, &ge;0)
+     */
+    ImportedScene(AIScene aiScene, AssetInfo info, LwjglAssetKey key,
+            ImportStatistics statistics, long importNanos) {
+        assert aiScene != null;
+        assert info != null;
+        assert key != null;
+        assert statistics != null;
+        assert importNanos >= 0L : importNanos;
+
+        this.aiScene = aiScene;
+        this.info = info;
+        this.key = key;
+        this.statistics = statistics;
+        this.importNanos = importNanos;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the imported data.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    AIScene aiScene() {
+        assert aiScene != null : "already released";
+        return aiScene;
+    }
+
+    /**
+     * Return the time spent in Assimp's import function.
+     *
+     * @return the elapsed time (in nanoseconds, &ge;0)
+     */
+    long importNanos() {
+        return importNanos;
+    }
+
+    /**
+     * Access the located main asset.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    AssetInfo info() {
+        return info;
+    }
+
+    /**
+     * Access the key used to load the main asset.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    LwjglAssetKey key() {
+        return key;
+    }
+
+    /**
+     * Release the imported data. Subsequent invocations have no effect.
+     */
+    void release() {
+        if (aiScene != null) {
+            Assimp.aiReleaseImport(aiScene);
+            this.aiScene = null;
+        }
+    }
+
+    /**
+     * Access the statistics about the import.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    ImportStatistics statistics() {
+        return statistics;
+    }
+}
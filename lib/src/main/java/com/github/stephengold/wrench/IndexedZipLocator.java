@@ -0,0 +1,138 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetLoadException;
+import com.jme3.asset.AssetLocator;
+import com.jme3.asset.AssetManager;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An AssetLocator for zip archives that's optimized for large, archive-packaged
+ * scenes. It can replace {@code com.jme3.asset.plugins.ZipLocator}.
+ * <p>
+ * The central directory of each archive is parsed once per process and
+ * cached, along with an open channel. When an entry is read (by lwjgl-assimp
+ * or through {@code openStream()}, as textures are), large STORED entries are
+ * mapped into memory and DEFLATED entries are inflated straight into a buffer
+ * of the exact size, without the archive-wide lock that
+ * {@code java.util.zip.ZipFile} imposes. As a result, several entries of the
+ * same archive (for instance, the files fetched in parallel when prefetching
+ * is enabled) can be inflated concurrently. Only entries larger than 64 MiB
+ * are streamed through a {@code ZipFile}.
+ * <p>
+ * Archives are re-indexed automatically if they change on disk.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class IndexedZipLocator implements AssetLocator {
+    // *************************************************************************
+    // fields
+
+    /**
+     * archive to search, or null if the root path hasn't been set
+     */
+    private File archive;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * The publicly accessible no-arg constructor required by
+     * {@code AssetManager}, made explicit to avoid javadoc warnings from JDK
+     * 18.
+     */
+    public IndexedZipLocator() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Forget the central directories of all cached archives. Any archive
+     * accessed later is re-indexed. Archives are closed once no reads are in
+     * progress.
+     */
+    public static void clearCache() {
+        ZipIndex.clearAll();
+    }
+    // *************************************************************************
+    // AssetLocator methods
+
+    /**
+     * Locate the specified asset in the archive, re-indexing the archive if
+     * it has changed on disk.
+     *
+     * @param manager the AssetManager to use (alias created)
+     * @param key the key of the asset to locate (not null)
+     * @return a new instance, or null if the archive lacks the asset
+     */
+    @Override
+    public AssetInfo locate(AssetManager manager, AssetKey key) {
+        String entryName = key.getName();
+        if (entryName.startsWith("/")) {
+            entryName = entryName.substring(1);
+        }
+
+        ZipIndex index;
+        try {
+            index = ZipIndex.forArchive(archive);
+        } catch (IOException exception) {
+            throw new AssetLoadException(
+                    "Failed to index zip file: " + archive, exception);
+        }
+
+        AssetInfo result = null;
+        if (index.contains(entryName)) {
+            result = new ZipEntryInfo(
+                    manager, key, archive, index, entryName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Specify the archive to search.
+     *
+     * @param rootPath the filesystem path to the archive (not null)
+     */
+    @Override
+    public void setRootPath(String rootPath) {
+        File file = new File(rootPath);
+        try {
+            ZipIndex.forArchive(file);
+            this.archive = file;
+        } catch (IOException exception) {
+            throw new AssetLoadException(
+                    "Failed to open zip file: " + rootPath, exception);
+        }
+    }
+}
@@ -54,6 +54,10 @@ public class LwjglAssetKey extends ModelKey {
             | Assimp.aiProcess_RemoveRedundantMaterials
             | Assimp.aiProcess_SortByPType //| Assimp.aiProcess_FlipUVs
             ;
+    /**
+     * default size above which assets are streamed (in bytes)
+     */
+    final public static long defaultStreamingThreshold = 1L << 30;
     /**
      * message logger for this class
      */
@@ -67,6 +71,43 @@ public class LwjglAssetKey extends ModelKey {
     // *************************************************************************
     // fields - TODO include property store?
 
+    /**
+     * true to re-encode vertex buffers in smaller formats, otherwise false
+     */
+    private boolean isCompactingVertices = false;
+    /**
+     * true to try a ".gz" suffix for files that can't be located, otherwise
+     * false
+     */
+    private boolean isGzipFallback = false;
+    /**
+     * true to interleave the vertex buffers of each mesh, otherwise false
+     */
+    private boolean isInterleaving = false;
+    /**
+     * true to import the main asset from memory, bypassing the callback
+     * filesystem, otherwise false
+     * <p>
+     * Note: does not affect {@code equals()} or {@code hashCode()}!
+     */
+    private boolean isMemoryImport = false;
+    /**
+     * true to reorder triangles and vertices for cache locality, otherwise
+     * false
+     */
+    private boolean isOptimizingVertexCache = false;
+    /**
+     * true to read referenced files in parallel before importing, otherwise
+     * false
+     * <p>
+     * Note: does not affect {@code equals()} or {@code hashCode()}!
+     */
+    private boolean isPrefetching = false;
+    /**
+     * true to split meshes that have too many vertices for 16-bit indices,
+     * otherwise false
+     */
+    private boolean isSplittingMeshes = false;
     /**
      * true to enable verbose logging, otherwise false
      * <p>
@@ -77,6 +118,19 @@ public class LwjglAssetKey extends ModelKey {
      * post-processing options, to be passed to {@code aiImportFile()}
      */
     final private int flags;
+    /**
+     * receive statistics about each import, or null if none
+     * <p>
+     * Note: does not affect {@code equals()} or {@code hashCode()}!
+     */
+    private ImportListener importListener;
+    /**
+     * size above which assets are streamed instead of being read in their
+     * entirety (in bytes, &ge;0)
+     * <p>
+     * Note: does not affect {@code equals()} or {@code hashCode()}!
+     */
+    private long streamingThreshold = defaultStreamingThreshold;
     /**
      * options for loading non-embedded textures (not null)
      */
@@ -153,6 +207,15 @@ public class LwjglAssetKey extends ModelKey {
         return flags;
     }
 
+    /**
+     * Access the listener that receives statistics about each import.
+     *
+     * @return the pre-existing instance, or null if none
+     */
+    public ImportListener getImportListener() {
+        return importListener;
+    }
+
     /**
      * Access the texture-load options.
      *
@@ -163,6 +226,73 @@ public class LwjglAssetKey extends ModelKey {
         return textureLoader;
     }
 
+    /**
+     * Test whether vertex buffers should be re-encoded in smaller formats.
+     *
+     * @return true to compact them, otherwise false
+     */
+    public boolean isCompactingVertices() {
+        return isCompactingVertices;
+    }
+
+    /**
+     * Test whether a ".gz" suffix should be tried for files that can't be
+     * located.
+     *
+     * @return true to try the suffix, otherwise false
+     */
+    public boolean isGzipFallback() {
+        return isGzipFallback;
+    }
+
+    /**
+     * Test whether the vertex buffers of each mesh should be interleaved.
+     *
+     * @return true to interleave them, otherwise false
+     */
+    public boolean isInterleaving() {
+        return isInterleaving;
+    }
+
+    /**
+     * Test whether the main asset should be imported from memory.
+     *
+     * @return true to import from memory, otherwise false
+     */
+    public boolean isMemoryImport() {
+        return isMemoryImport;
+    }
+
+    /**
+     * Test whether triangles and vertices should be reordered for cache
+     * locality.
+     *
+     * @return true to reorder them, otherwise false
+     */
+    public boolean isOptimizingVertexCache() {
+        return isOptimizingVertexCache;
+    }
+
+    /**
+     * Test whether referenced files should be read in parallel before
+     * importing.
+     *
+     * @return true to prefetch, otherwise false
+     */
+    public boolean isPrefetching() {
+        return isPrefetching;
+    }
+
+    /**
+     * Test whether meshes with too many vertices for 16-bit indices should be
+     * split.
+     *
+     * @return true to split them, otherwise false
+     */
+    public boolean isSplittingMeshes() {
+        return isSplittingMeshes;
+    }
+
     /**
      * Test whether verbose logging should be enabled.
      *
@@ -172,6 +302,147 @@ public class LwjglAssetKey extends ModelKey {
         return isVerboseLogging;
     }
 
+    /**
+     * Enable or disable vertex compaction. When enabled, normals and tangents
+     * are stored as normalized bytes, vertex colors as normalized unsigned
+     * bytes, and texture coordinates as normalized unsigned shorts, which
+     * shrinks those buffers by a factor of 2 to 4. A buffer is left as floats
+     * if its values don't fit the smaller format to within rounding error
+     * (for instance, texture coordinates outside [0, 1]). Positions are never
+     * compacted, nor are the normals and tangents of skinned meshes, nor any
+     * buffers of meshes with morph targets. Compacted meshes may not suit
+     * utilities that expect float buffers.
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setCompactingVertices(boolean setting) {
+        this.isCompactingVertices = setting;
+    }
+
+    /**
+     * Enable or disable the gzip fallback. When enabled, a file that can't be
+     * located is looked for again with a ".gz" suffix (and decompressed if
+     * found). This doubles the locator queries for missing files, so it's
+     * best enabled only for content that's actually stored compressed.
+     * Gzip-compressed files located under their own names are decompressed
+     * regardless of this setting.
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setGzipFallback(boolean setting) {
+        this.isGzipFallback = setting;
+    }
+
+    /**
+     * Alter the listener that receives statistics about each import. While a
+     * listener is set, the loader measures elapsed times as well as counts.
+     *
+     * @param listener the desired listener (alias created) or null for none
+     * (default=null)
+     */
+    public void setImportListener(ImportListener listener) {
+        this.importListener = listener;
+    }
+
+    /**
+     * Enable or disable interleaving. When enabled, the vertex attributes of
+     * each mesh are copied into a single interleaved buffer, which is what
+     * gets uploaded to the GPU, so that each vertex is fetched from a single
+     * contiguous region. Skinned meshes and meshes with morph targets aren't
+     * interleaved.
+     * <p>
+     * Interleaving changes the GPU-upload layout only; it doesn't reduce
+     * import-time allocation. The interleaved buffer is allocated in addition
+     * to the per-attribute buffers, and the position buffer is retained
+     * alongside it.
+     * <p>
+     * Limitation: positions (and indices) remain available on the CPU for
+     * bounds, picking, and position-based collision shapes, but the data of
+     * every other interleaved attribute is released. Interleaved meshes are
+     * therefore render-only: {@code Mesh.deepClone()}, J3O export, tangent
+     * generation, and any other code that reads normals, tangents, colors, or
+     * texture coordinates on the CPU will fail or see null buffers.
+     * ({@code Spatial.clone()}, which shares meshes, is unaffected.)
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setInterleaving(boolean setting) {
+        this.isInterleaving = setting;
+    }
+
+    /**
+     * Enable or disable importing from memory. When enabled, the loader reads
+     * the main asset into memory and passes it to Assimp directly, bypassing
+     * the callback filesystem. This suits self-contained formats (such as GLB
+     * or binary FBX) since Assimp can't read any other files. The file
+     * extension of the asset path serves as a format hint.
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setMemoryImport(boolean setting) {
+        this.isMemoryImport = setting;
+    }
+
+    /**
+     * Enable or disable vertex-cache optimization. When enabled, the
+     * triangles of each indexed triangle mesh are reordered for locality in
+     * the GPU's post-transform vertex cache (using Forsyth's algorithm) and
+     * its vertices are then renumbered in order of first use, for locality in
+     * vertex fetching. Unlike Assimp's {@code aiProcess_ImproveCacheLocality},
+     * the pass is deterministic and reports the average cache-miss ratio
+     * (ACMR) and average transform-to-vertex ratio (ATVR) before and after
+     * (at INFO level if verbose logging is enabled, otherwise FINE). Meshes
+     * with morph targets aren't reordered.
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setOptimizingVertexCache(boolean setting) {
+        this.isOptimizingVertexCache = setting;
+    }
+
+    /**
+     * Enable or disable prefetching. When enabled, the loader scans the main
+     * file for references to other files that Assimp will read (such as glTF
+     * buffers and OBJ material libraries) and reads them in parallel before
+     * the import begins. This helps most when assets are located slowly.
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setPrefetching(boolean setting) {
+        this.isPrefetching = setting;
+    }
+
+    /**
+     * Enable or disable mesh splitting. When enabled, each mesh with more
+     * than 65,535 vertices is split into submeshes small enough for 16-bit
+     * indices, which halves the size of their index buffers. The submeshes
+     * share the original material and are attached where the original mesh
+     * would be. Meshes with morph targets aren't split.
+     *
+     * @param setting true to enable, false to disable (default=false)
+     */
+    public void setSplittingMeshes(boolean setting) {
+        this.isSplittingMeshes = setting;
+    }
+
+    /**
+     * Alter the streaming threshold. Assets larger than the threshold are
+     * streamed through a bounded window instead of being read into memory in
+     * their entirety, which limits memory usage for very large files and
+     * allows files larger than 2 GiB to be imported. Streamed assets aren't
+     * cached, and a format whose importer seeks backward may re-read them.
+     *
+     * @param numBytes the desired threshold (in bytes, &ge;0,
+     * default=1 GiB)
+     */
+    public void setStreamingThreshold(long numBytes) {
+        if (numBytes < 0L) {
+            throw new IllegalArgumentException("numBytes = " + numBytes);
+        }
+
+        this.streamingThreshold = numBytes;
+    }
+
     /**
      * Enable or disable verbose logging.
      *
@@ -180,6 +451,15 @@ public class LwjglAssetKey extends ModelKey {
     public void setVerboseLogging(boolean setting) {
         this.isVerboseLogging = setting;
     }
+
+    /**
+     * Return the size above which assets are streamed.
+     *
+     * @return the threshold (in bytes, &ge;0)
+     */
+    public long streamingThreshold() {
+        return streamingThreshold;
+    }
     // *************************************************************************
     // ModelKey methods
 
@@ -194,9 +474,10 @@ public class LwjglAssetKey extends ModelKey {
     }
 
     /**
-     * Test for equivalence with another Object. The {@code isVerboseLogging}
-     * parameter is not taken into account because it shouldn't affect the
-     * loaded model.
+     * Test for equivalence with another Object. The {@code importListener},
+     * {@code isMemoryImport}, {@code isPrefetching}, {@code isVerboseLogging},
+     * and {@code streamingThreshold} parameters are not taken into account
+     * because they shouldn't affect the loaded model.
      *
      * @param other the object to compare to (may be null, unaffected)
      * @return true if the objects are equivalent, otherwise false
@@ -212,6 +493,13 @@ public class LwjglAssetKey extends ModelKey {
             LwjglAssetKey otherKey = (LwjglAssetKey) other;
             result = super.equals(otherKey)
                     && (flags == otherKey.flags())
+                    && (isCompactingVertices
+                    == otherKey.isCompactingVertices())
+                    && (isGzipFallback == otherKey.isGzipFallback())
+                    && (isInterleaving == otherKey.isInterleaving())
+                    && (isOptimizingVertexCache
+                    == otherKey.isOptimizingVertexCache())
+                    && (isSplittingMeshes == otherKey.isSplittingMeshes())
                     && (textureLoader == otherKey.textureLoader);
         }
 
@@ -219,9 +507,10 @@ public class LwjglAssetKey extends ModelKey {
     }
 
     /**
-     * Generate the hash code for the key. The {@code isVerboseLogging}
-     * parameter is not taken into account because it shouldn't affect the
-     * loaded model.
+     * Generate the hash code for the key. The {@code importListener},
+     * {@code isMemoryImport}, {@code isPrefetching}, {@code isVerboseLogging},
+     * and {@code streamingThreshold} parameters are not taken into account
+     * because they shouldn't affect the loaded model.
      *
      * @return a 32-bit value for use in hashing
      */
@@ -230,6 +519,11 @@ public class LwjglAssetKey extends ModelKey {
         int result = 5;
         result = 31 * result + super.hashCode();
         result = 31 * result + flags;
+        result = 31 * result + (isCompactingVertices ? 1 : 0);
+        result = 31 * result + (isGzipFallback ? 1 : 0);
+        result = 31 * result + (isInterleaving ? 1 : 0);
+        result = 31 * result + (isOptimizingVertexCache ? 1 : 0);
+        result = 31 * result + (isSplittingMeshes ? 1 : 0);
         result = 31 * result + textureLoader.hashCode();
 
         return result;
@@ -30,12 +30,19 @@ package com.github.stephengold.wrench;
 
 import com.jme3.asset.AssetInfo;
 import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetLoadException;
 import com.jme3.asset.AssetLoader;
 import com.jme3.asset.AssetManager;
+import com.jme3.asset.AssetNotFoundException;
 import com.jme3.math.FastMath;
 import com.jme3.scene.Node;
-import com.jme3.texture.Texture;
+import com.jme3.scene.Spatial;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Logger;
 import jme3utilities.MyString;
 import org.lwjgl.PointerBuffer;
@@ -45,6 +52,11 @@ import org.lwjgl.assimp.Assimp;
 
 /**
  * A versatile loader for animation/model/scene assets based on lwjgl-assimp.
+ * <p>
+ * Multiple assets may be loaded concurrently, from different threads, even if
+ * they share an AssetManager. Messages that Assimp logs are captured per
+ * thread, so each failed import reports its own error, and verbose logging
+ * for one import doesn't leak into the others.
  *
  * @author Stephen Gold sgold@sonic.net
  */
@@ -69,6 +81,222 @@ final public class LwjglAssetLoader implements AssetLoader {
         // do nothing
     }
     // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Convert an imported asset to a scene graph, then release the imported
+     * data. This is the 2nd stage of a load.
+     *
+     * @param imported the imported asset (not null, released)
+     * @param cancelCheck tests whether the load has been cancelled (not null)
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if the imported asset cannot be converted to a
+     * scene graph
+     */
+    static Node convertScene(ImportedScene imported,
+            BooleanSupplier cancelCheck) throws IOException {
+        LwjglAssetKey assetKey = imported.key();
+        ImportListener listener = assetKey.getImportListener();
+        boolean isTimed = (listener != null);
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+
+        AIScene aiScene = imported.aiScene();
+        AssetManager assetManager = imported.info().getManager();
+        int postFlags = assetKey.flags();
+        boolean isSuccess = false;
+        Node result;
+        try {
+            AssetBuilder assetBuilder = new AssetBuilder(aiScene, assetKey);
+            assetBuilder.setCancelCheck(cancelCheck);
+            if (assetBuilder.isComplete()) {
+                // Convert the embedded textures, if any:
+                assetBuilder.checkCancelled();
+                EmbeddedTextures textures = new EmbeddedTextures(0);
+                int numTextures = aiScene.mNumTextures();
+                if (numTextures > 0) {
+                    PointerBuffer pTextures = aiScene.mTextures();
+                    textures = ConversionUtils.convertTextures(
+                            pTextures, postFlags);
+                }
+
+                // Convert the materials:
+                assetBuilder.checkCancelled();
+                int numMaterials = aiScene.mNumMaterials();
+                if (numMaterials > 0) {
+                    assetBuilder.convertMaterials(assetManager, textures);
+                }
+
+                result = assetBuilder.buildCompleteScene();
+                boolean zUp = assetBuilder.isZUp();
+                if (zUp) {
+                    // Rotate to JMonkeyEngine's Y-up orientation:
+                    result.rotate(-FastMath.HALF_PI, 0f, 0f);
+                }
+
+            } else { // Incomplete AIScene, return a single Node:
+                try {
+                    result = assetBuilder.buildAnimationNode();
+                } catch (IOException exception) {
+                    result = null;
+                }
+
+                if (result == null) {
+                    try {
+                        result = assetBuilder.buildCameraAndLightNodes();
+                    } catch (IOException exception) {
+                        // do nothing
+                    }
+                }
+            }
+            isSuccess = true;
+
+        } finally { // Release the imported data, even if cancelled:
+            imported.release();
+
+            // Notify the listener, even if conversion failed:
+            if (listener != null) {
+                long conversionNanos = System.nanoTime() - startNanos;
+                ImportStatistics statistics = imported.statistics();
+                long importNanos = imported.importNanos();
+                statistics.setTimings(importNanos, conversionNanos);
+                statistics.setSuccess(isSuccess);
+                listener.importCompleted(statistics);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Free the native callbacks that lwjgl-assimp uses to read assets and to
+     * capture log messages. The callbacks are shared by all imports and are
+     * created on first use, so invoking this method is optional. It's meant
+     * for applications that want to release native resources before they exit
+     * or unload the library. Any later import re-creates the callbacks.
+     *
+     * @throws IllegalStateException if an import is in progress
+     */
+    public static void freeNativeCallbacks() {
+        AssetFileSystem.freeCallbacks();
+        AssimpLog.freeCallbacks();
+    }
+
+    /**
+     * Import an asset using lwjgl-assimp. This is the 1st stage of a load. If
+     * the import fails (or throws), the key's import listener (if any) is
+     * notified of the failure.
+     *
+     * @param info the located asset (not null)
+     * @param assetKey the asset key (not null, alias created)
+     * @return a new imported asset, which the caller must convert or release
+     * (not null)
+     * @throws IOException if lwjgl-assimp fails to import the asset
+     */
+    static ImportedScene importScene(AssetInfo info, LwjglAssetKey assetKey)
+            throws IOException {
+        String filename = assetKey.getName();
+        ImportListener listener = assetKey.getImportListener();
+        boolean isTimed = (listener != null);
+        ImportStatistics statistics = new ImportStatistics(filename);
+
+        boolean verboseLogging = assetKey.isVerboseLogging();
+        AssimpLog log = AssimpLog.begin(verboseLogging);
+        long startNanos = isTimed ? System.nanoTime() : 0L;
+        AIScene aiScene = null;
+        boolean isImported = false;
+        try {
+            if (assetKey.isMemoryImport()) {
+                aiScene = importFromMemory(info, assetKey, statistics);
+            } else {
+                aiScene = importViaFileSystem(
+                        info, assetKey, statistics, isTimed);
+            }
+            isImported = (aiScene != null && aiScene.mRootNode() != null);
+
+        } finally {
+            log.end();
+
+            // Notify the listener if the import failed or threw:
+            if (!isImported && listener != null) {
+                long importNanos = System.nanoTime() - startNanos;
+                statistics.setTimings(importNanos, 0L);
+                statistics.setSuccess(false);
+                listener.importCompleted(statistics);
+            }
+        }
+        long importNanos = isTimed ? System.nanoTime() - startNanos : 0L;
+
+        if (!isImported) {
+            Assimp.aiReleaseImport(aiScene);
+
+            // Report the error:
+            String quotedName = MyString.quote(filename);
+            String errorString = log.lastError(); // logged by this thread
+            if (errorString == null) {
+                errorString = Assimp.aiGetErrorString();
+            }
+            String message = String.format(
+                    "Assimp failed to import an asset from %s:%n %s",
+                    quotedName, errorString);
+            throw new IOException(message);
+        }
+
+        ImportedScene result = new ImportedScene(
+                aiScene, info, assetKey, statistics, importNanos);
+
+        return result;
+    }
+
+    /**
+     * Load the specified asset asynchronously, using the common fork-join
+     * pool.
+     *
+     * @param assetManager the AssetManager to locate the asset and its
+     * textures (not null, alias created)
+     * @param key the key of the asset (not null, alias created)
+     * @return a new future (not null)
+     * @see #loadAsync(com.jme3.asset.AssetManager, LwjglAssetKey,
+     * java.util.concurrent.Executor)
+     */
+    public static CompletableFuture<Spatial> loadAsync(
+            AssetManager assetManager, LwjglAssetKey key) {
+        CompletableFuture<Spatial> result
+                = loadAsync(assetManager, key, ForkJoinPool.commonPool());
+        return result;
+    }
+
+    /**
+     * Load the specified asset asynchronously, using the specified executor.
+     * The asset is located using the AssetManager, but the AssetManager's
+     * cache is bypassed.
+     * <p>
+     * If the returned future is cancelled, the load is abandoned at the next
+     * stage boundary: after the native import, after the embedded textures,
+     * after the materials, after the meshes, or before the animations. The
+     * imported data are released in any case.
+     *
+     * @param assetManager the AssetManager to locate the asset and its
+     * textures (not null, alias created)
+     * @param key the key of the asset (not null, alias created)
+     * @param executor the executor to use (not null)
+     * @return a new future that completes with a new scene-graph subtree, or
+     * exceptionally if the load fails
+     */
+    public static CompletableFuture<Spatial> loadAsync(
+            AssetManager assetManager, LwjglAssetKey key, Executor executor) {
+        CancellableLoad load = (BooleanSupplier cancelCheck) -> {
+            AssetInfo info = assetManager.locateAsset(key);
+            if (info == null) {
+                throw new AssetNotFoundException(key.getName());
+            }
+            Node scene = loadScene(info, key, cancelCheck);
+            return scene;
+        };
+        CompletableFuture<Spatial> result = load.submitTo(executor);
+
+        return result;
+    }
+    // *************************************************************************
     // AssetLoader methods
 
     /**
@@ -92,7 +320,7 @@ final public class LwjglAssetLoader implements AssetLoader {
         }
 
         try {
-            Node result = loadScene(assetInfo, key);
+            Node result = loadScene(assetInfo, key, () -> false);
             return result;
 
         } catch (IOException exception) {
@@ -106,95 +334,89 @@ final public class LwjglAssetLoader implements AssetLoader {
     // AssetLoader methods
 
     /**
-     * Load an asset using lwjgl-assimp and an AssetManager-based virtual
-     * filesystem.
+     * Import the main asset from memory, bypassing the callback filesystem.
      *
      * @param info the located asset (not null)
      * @param assetKey the asset key (not null, unaffected)
-     * @return a new scene-graph subtree (not null)
-     * @throws IOException if lwjgl-assimp fails to import an asset or if the
-     * imported asset cannot be converted to a scene graph
+     * @param statistics the statistics to update (not null, modified)
+     * @return a new scene, or null if the import failed
      */
-    private static Node loadScene(AssetInfo info, LwjglAssetKey assetKey)
-            throws IOException {
-        boolean verboseLogging = assetKey.isVerboseLogging();
-        if (verboseLogging) {
-            LwjglReader.enableVerboseLogging();
+    private static AIScene importFromMemory(AssetInfo info,
+            LwjglAssetKey assetKey, ImportStatistics statistics) {
+        ByteBuffer content = AssetFile.readContents(info);
+        statistics.addRead(content.capacity(), 0L, 0L);
+        if (AssetFile.isGzip(content)) {
+            content = AssetFile.gunzip(content, Integer.MAX_VALUE);
+            if (content == null) {
+                throw new AssetLoadException(
+                        "Decompressed asset exceeds 2 GiB.");
+            }
+            statistics.addDecompression(content.capacity(), 0L);
         }
 
+        String formatHint = assetKey.getExtension();
+        int postFlags = assetKey.flags();
+        AIScene result
+                = LwjglReader.importFromMemory(content, formatHint, postFlags);
+
+        return result;
+    }
+
+    /**
+     * Import an asset via an AssetManager-based virtual filesystem.
+     *
+     * @param info the located asset (not null)
+     * @param assetKey the asset key (not null, unaffected)
+     * @param statistics the statistics to update (not null, modified)
+     * @param isTimed true to measure elapsed times, otherwise false
+     * @return a new scene, or null if the import failed
+     */
+    private static AIScene importViaFileSystem(AssetInfo info,
+            LwjglAssetKey assetKey, ImportStatistics statistics,
+            boolean isTimed) {
         // Create a temporary virtual filesystem:
         AssetManager assetManager = info.getManager();
-        AssetFileSystem tempFileSystem = new AssetFileSystem(assetManager);
+        long streamingThreshold = assetKey.streamingThreshold();
+        boolean isGzipFallback = assetKey.isGzipFallback();
+        AssetFileSystem tempFileSystem = new AssetFileSystem(assetManager,
+                statistics, isTimed, streamingThreshold, isGzipFallback);
         AIFileIO aiFileIo = tempFileSystem.getAccess();
 
         String filename = assetKey.getName();
-        int postFlags = assetKey.flags();
-        AIScene aiScene = Assimp.aiImportFileEx(filename, postFlags, aiFileIo);
-        Assimp.aiDetachAllLogStreams();
-
-        if (aiScene == null || aiScene.mRootNode() == null) {
-            Assimp.aiReleaseImport(aiScene);
-            tempFileSystem.destroy();
-
-            // Report the error:
-            String quotedName = MyString.quote(filename);
-            String errorString = Assimp.aiGetErrorString();
-            String message = String.format(
-                    "Assimp failed to import an asset from %s:%n %s",
-                    quotedName, errorString);
-            throw new IOException(message);
-        }
-
-        AssetBuilder assetBuilder = new AssetBuilder(aiScene, assetKey);
-        Node result;
-        if (assetBuilder.isComplete()) {
-            // Convert the embedded textures, if any:
-            Texture[] textureArray = new Texture[0];
-            int numTextures = aiScene.mNumTextures();
-            if (numTextures > 0) {
-                PointerBuffer pTextures = aiScene.mTextures();
-                textureArray
-                        = ConversionUtils.convertTextures(pTextures, postFlags);
-            }
-
-            // Convert the materials:
-            int numMaterials = aiScene.mNumMaterials();
-            if (numMaterials > 0) {
-                assetBuilder.convertMaterials(assetManager, textureArray);
-            }
-
-            tempFileSystem.destroy();
-            try {
-                result = assetBuilder.buildCompleteScene();
-            } finally {
-                Assimp.aiReleaseImport(aiScene);
-            }
-
-            boolean zUp = assetBuilder.isZUp();
-            if (zUp) {
-                // Rotate to JMonkeyEngine's Y-up orientation:
-                result.rotate(-FastMath.HALF_PI, 0f, 0f);
+        AIScene result;
+        try {
+            if (assetKey.isPrefetching()) {
+                tempFileSystem.prefetch(filename);
             }
-
-        } else { // Incomplete AIScene, return a single Node:
+            int postFlags = assetKey.flags();
+            result = Assimp.aiImportFileEx(filename, postFlags, aiFileIo);
+        } finally {
+            /*
+             * Assimp closes all files before returning, so the filesystem can
+             * be destroyed now, which also un-hushes the AssetManager logger
+             * before any textures are loaded:
+             */
             tempFileSystem.destroy();
+        }
 
-            try {
-                result = assetBuilder.buildAnimationNode();
-            } catch (IOException exception) {
-                result = null;
-            }
-
-            if (result == null) {
-                try {
-                    result = assetBuilder.buildCameraAndLightNodes();
-                } catch (IOException exception) {
-                    // do nothing
-                }
-            }
+        return result;
+    }
 
-            Assimp.aiReleaseImport(aiScene);
-        }
+    /**
+     * Load an asset using lwjgl-assimp and an AssetManager-based virtual
+     * filesystem.
+     *
+     * @param info the located asset (not null)
+     * @param assetKey the asset key (not null, unaffected)
+     * @param cancelCheck tests whether the load has been cancelled (not null)
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if lwjgl-assimp fails to import an asset or if the
+     * imported asset cannot be converted to a scene graph
+     */
+    private static Node loadScene(AssetInfo info, LwjglAssetKey assetKey,
+            BooleanSupplier cancelCheck) throws IOException {
+        ImportedScene imported = importScene(info, assetKey);
+        Node result = convertScene(imported, cancelCheck);
 
         return result;
     }
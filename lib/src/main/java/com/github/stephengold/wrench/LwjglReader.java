@@ -36,20 +36,24 @@ import com.jme3.math.FastMath;
 import com.jme3.math.Matrix4f;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
-import com.jme3.texture.Texture;
 import com.jme3.texture.plugins.AWTLoader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Logger;
 import jme3utilities.Heart;
 import jme3utilities.MyString;
 import org.lwjgl.PointerBuffer;
-import org.lwjgl.assimp.AILogStream;
 import org.lwjgl.assimp.AIMatrix4x4;
 import org.lwjgl.assimp.AINode;
+import org.lwjgl.assimp.AIPropertyStore;
 import org.lwjgl.assimp.AIScene;
 import org.lwjgl.assimp.Assimp;
+import org.lwjgl.system.MemoryUtil;
 
 /**
  * Read assets from the real filesystem using lwjgl-assimp.
@@ -174,19 +178,79 @@ final public class LwjglReader {
     }
 
     /**
-     * Log importer progress to the standard output.
+     * Import an animation/model/scene asset from memory, bypassing the
+     * callback filesystem. A direct buffer is passed to Assimp without
+     * copying; any other buffer is first copied to native memory.
      * <p>
-     * Remember to invoke {@code Assimp.aiDetachAllLogStreams()} when done
-     * importing the mode/scene!
+     * Only self-contained formats (such as GLB or binary FBX) can be imported
+     * this way, since Assimp can't read any other files.
+     *
+     * @param content the content of the asset (not null, unaffected, from
+     * position to limit)
+     * @param formatHint the file extension of the asset's format, without the
+     * leading dot (not null)
+     * @param loadFlags post-processing flags to be passed to Assimp
+     * @return a new scene, or null if the import failed
+     */
+    static AIScene importFromMemory(
+            ByteBuffer content, String formatHint, int loadFlags) {
+        ByteBuffer nativeContent;
+        if (content.isDirect()) {
+            nativeContent = content;
+        } else { // Copy the content to native memory:
+            nativeContent = MemoryUtil.memAlloc(content.remaining());
+            nativeContent.put(content.duplicate());
+            nativeContent.flip();
+        }
+
+        AIPropertyStore propertyStore = Assimp.aiCreatePropertyStore();
+        AIScene result;
+        try {
+            result = Assimp.aiImportFileFromMemoryWithProperties(
+                    nativeContent, loadFlags, formatHint, propertyStore);
+        } finally {
+            Assimp.aiReleasePropertyStore(propertyStore);
+            if (nativeContent != content) {
+                MemoryUtil.memFree(nativeContent);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Read an animation/model/scene asset from memory.
+     * <p>
+     * Only self-contained formats (such as GLB or binary FBX) can be read
+     * this way. Non-embedded textures are located relative to the working
+     * directory.
+     *
+     * @param content the content of the asset (not null, unaffected, from
+     * position to limit)
+     * @param formatHint the file extension of the asset's format, without the
+     * leading dot (not null, for example "glb")
+     * @param verboseLogging true to enable verbose logging, otherwise false
+     * @param loadFlags post-processing flags to be passed to Assimp
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if lwjgl-assimp fails to import the asset or if the
+     * imported asset cannot be converted to a scene graph
      */
-    static void enableVerboseLogging() {
-        String logFilename = null;
-        AILogStream logStream = AILogStream.create();
-        logStream = Assimp.aiGetPredefinedLogStream(
-                Assimp.aiDefaultLogStream_STDOUT, logFilename, logStream);
-        Assimp.aiAttachLogStream(logStream);
-
-        Assimp.aiEnableVerboseLogging(true);
+    public static Spatial readCgm(ByteBuffer content, String formatHint,
+            boolean verboseLogging, int loadFlags) throws IOException {
+        AssimpLog log = AssimpLog.begin(verboseLogging);
+        AIScene aiScene;
+        try {
+            aiScene = importFromMemory(content, formatHint, loadFlags);
+        } finally {
+            log.end();
+        }
+
+        String description = "memory (" + formatHint + ")";
+        String assetPath = "memory." + formatHint;
+        Spatial result = convertScene(aiScene, log, description, assetPath,
+                verboseLogging, loadFlags, () -> false);
+
+        return result;
     }
 
     /**
@@ -203,67 +267,128 @@ final public class LwjglReader {
     public static Spatial readCgm(
             String filename, boolean verboseLogging, int loadFlags)
             throws IOException {
-        if (verboseLogging) {
-            enableVerboseLogging();
-        }
+        Spatial result
+                = readFile(filename, verboseLogging, loadFlags, () -> false);
+        return result;
+    }
+
+    /**
+     * Read an animation/model/scene asset from the real filesystem, using the
+     * specified executor.
+     * <p>
+     * If the returned future is cancelled, the load is abandoned at the next
+     * stage boundary: after the native import, after the embedded textures,
+     * after the materials, after the meshes, or before the animations. The
+     * imported data are released in any case.
+     *
+     * @param filename the filesystem path to the main asset (not null)
+     * @param verboseLogging true to enable verbose logging, otherwise false
+     * @param loadFlags post-processing flags to be passed to
+     * {@code aiImportFile()}
+     * @param executor the executor to use (not null)
+     * @return a new future that completes with a new scene-graph subtree, or
+     * exceptionally if the load fails
+     */
+    public static CompletableFuture<Spatial> readCgmAsync(String filename,
+            boolean verboseLogging, int loadFlags, Executor executor) {
+        CancellableLoad load = (BooleanSupplier cancelCheck)
+                -> readFile(filename, verboseLogging, loadFlags, cancelCheck);
+        CompletableFuture<Spatial> result = load.submitTo(executor);
 
-        AIScene aiScene = Assimp.aiImportFile(filename, loadFlags);
-        Assimp.aiDetachAllLogStreams();
+        return result;
+    }
 
+    /**
+     * Return the version string of the MonkeyWrench library.
+     *
+     * @return a release name or a snapshot name (not null, not empty)
+     */
+    public static String version() {
+        return "0.6.3-SNAPSHOT";
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Convert an imported scene to a JMonkeyEngine scene graph, using a
+     * temporary AssetManager to load material definitions and non-embedded
+     * textures. The scene is released when no longer needed.
+     *
+     * @param aiScene the imported scene (may be null, released)
+     * @param log the Assimp messages captured during the import (not null,
+     * ended)
+     * @param description a description of the source, for error messages (not
+     * null)
+     * @param assetPath the asset path to use for the main asset (not null)
+     * @param verboseLogging true to enable verbose logging, otherwise false
+     * @param loadFlags the post-processing flags used during import
+     * @param cancelCheck tests whether the load has been cancelled (not null)
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if the import failed or if the imported scene
+     * cannot be converted to a scene graph
+     */
+    private static Node convertScene(AIScene aiScene, AssimpLog log,
+            String description, String assetPath, boolean verboseLogging,
+            int loadFlags, BooleanSupplier cancelCheck) throws IOException {
         if (aiScene == null || aiScene.mRootNode() == null) {
             Assimp.aiReleaseImport(aiScene);
 
             // Report the error:
-            String quotedName = MyString.quote(filename);
-            String errorString = Assimp.aiGetErrorString();
+            String errorString = log.lastError(); // logged by this thread
+            if (errorString == null) {
+                errorString = Assimp.aiGetErrorString();
+            }
             String message = String.format(
                     "Assimp failed to import an asset from %s:%n %s",
-                    quotedName, errorString);
+                    description, errorString);
             throw new IOException(message);
         }
 
         // Create an LwjglAssetKey for the main asset:
-        String assetPath = Heart.fixPath(filename);
         LwjglAssetKey mainKey = new LwjglAssetKey(assetPath, loadFlags);
         mainKey.setVerboseLogging(verboseLogging);
 
-        AssetBuilder assetBuilder = new AssetBuilder(aiScene, mainKey);
-        if (!assetBuilder.isComplete()) {
-            Assimp.aiReleaseImport(aiScene);
-            throw new IOException(
-                    "The imported data structure is not a complete scene.");
-        }
+        AssetBuilder assetBuilder;
+        Node result;
+        try {
+            assetBuilder = new AssetBuilder(aiScene, mainKey);
+            assetBuilder.setCancelCheck(cancelCheck);
+            if (!assetBuilder.isComplete()) {
+                throw new IOException(
+                        "The imported data structure is not a complete scene.");
+            }
 
-        // Convert the embedded textures, if any:
-        Texture[] textureArray = new Texture[0];
-        int numTextures = aiScene.mNumTextures();
-        if (numTextures > 0) {
-            PointerBuffer pTextures = aiScene.mTextures();
-            textureArray
-                    = ConversionUtils.convertTextures(pTextures, loadFlags);
-        }
+            // Convert the embedded textures, if any:
+            assetBuilder.checkCancelled();
+            EmbeddedTextures textures = new EmbeddedTextures(0);
+            int numTextures = aiScene.mNumTextures();
+            if (numTextures > 0) {
+                PointerBuffer pTextures = aiScene.mTextures();
+                textures
+                        = ConversionUtils.convertTextures(pTextures, loadFlags);
+            }
 
-        // Convert the materials:
-        int numMaterials = aiScene.mNumMaterials();
-        if (numMaterials > 0) {
-            /*
-             * Create a temporary AssetManager for loading
-             * material definitions and non-embedded textures:
-             */
-            DesktopAssetManager assetManager = new DesktopAssetManager();
-            assetManager.registerLocator("/", FileLocator.class);
-            assetManager.registerLocator("/", ClasspathLocator.class);
-            assetManager.registerLoader(
-                    AWTLoader.class, "bmp", "gif", "jpg", "jpeg", "png");
-            assetManager.registerLoader(J3MLoader.class, "j3md");
-
-            assetBuilder.convertMaterials(assetManager, textureArray);
-        }
+            // Convert the materials:
+            assetBuilder.checkCancelled();
+            int numMaterials = aiScene.mNumMaterials();
+            if (numMaterials > 0) {
+                /*
+                 * Create a temporary AssetManager for loading
+                 * material definitions and non-embedded textures:
+                 */
+                DesktopAssetManager assetManager = new DesktopAssetManager();
+                assetManager.registerLocator("/", FileLocator.class);
+                assetManager.registerLocator("/", ClasspathLocator.class);
+                assetManager.registerLoader(
+                        AWTLoader.class, "bmp", "gif", "jpg", "jpeg", "png");
+                assetManager.registerLoader(J3MLoader.class, "j3md");
+
+                assetBuilder.convertMaterials(assetManager, textures);
+            }
 
-        Node result;
-        try {
             result = assetBuilder.buildCompleteScene();
-        } finally {
+
+        } finally { // Release the imported data, even if cancelled:
             Assimp.aiReleaseImport(aiScene);
         }
 
@@ -277,11 +402,32 @@ final public class LwjglReader {
     }
 
     /**
-     * Return the version string of the MonkeyWrench library.
+     * Read an animation/model/scene asset from the real filesystem.
      *
-     * @return a release name or a snapshot name (not null, not empty)
+     * @param filename the filesystem path to the main asset (not null)
+     * @param verboseLogging true to enable verbose logging, otherwise false
+     * @param loadFlags post-processing flags to be passed to
+     * {@code aiImportFile()}
+     * @param cancelCheck tests whether the load has been cancelled (not null)
+     * @return a new scene-graph subtree (not null)
+     * @throws IOException if lwjgl-assimp fails to import an asset or if the
+     * imported asset cannot be converted to a scene graph
      */
-    public static String version() {
-        return "0.6.3-SNAPSHOT";
+    private static Spatial readFile(String filename, boolean verboseLogging,
+            int loadFlags, BooleanSupplier cancelCheck) throws IOException {
+        AssimpLog log = AssimpLog.begin(verboseLogging);
+        AIScene aiScene;
+        try {
+            aiScene = Assimp.aiImportFile(filename, loadFlags);
+        } finally {
+            log.end();
+        }
+
+        String quotedName = MyString.quote(filename);
+        String assetPath = Heart.fixPath(filename);
+        Spatial result = convertScene(aiScene, log, quotedName, assetPath,
+                verboseLogging, loadFlags, cancelCheck);
+
+        return result;
     }
 }
@@ -43,6 +43,7 @@ import com.jme3.texture.Texture;
 import com.jme3.util.BufferUtils;
 import java.io.IOException;
 import java.nio.FloatBuffer;
+import java.util.Collection;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
@@ -127,6 +128,10 @@ class MaterialBuilder {
      * properties for texture sampling
      */
     final private Map<String, Sampler> samplerMap = new TreeMap<>();
+    /**
+     * map raw asset paths to preloaded external textures
+     */
+    final private Map<String, Texture> externalTextures;
     /**
      * JMonkeyEngine material under construction
      */
@@ -151,7 +156,7 @@ class MaterialBuilder {
     /**
      * array of embedded textures
      */
-    final private Texture[] embeddedTextures;
+    final private EmbeddedTextures embeddedTextures;
     /**
      * source of texture coordinates, or null if unspecified
      */
@@ -167,19 +172,22 @@ class MaterialBuilder {
      * @param assetManager for loading material definitions and non-embedded
      * textures (not null, alias created)
      * @param mainKey the key used to load the main asset (not null, unaffected)
-     * @param embeddedTextures the array of embedded textures (not null, alias
-     * created)
+     * @param embeddedTextures the embedded textures (not null, alias created)
+     * @param externalTextures map from raw asset paths to preloaded external
+     * textures (not null, alias created)
      * @throws IOException if the Assimp material cannot be converted
      */
     MaterialBuilder(AIMaterial aiMaterial, int index, AssetManager assetManager,
-            LwjglAssetKey mainKey, Texture[] embeddedTextures)
-            throws IOException {
+            LwjglAssetKey mainKey, EmbeddedTextures embeddedTextures,
+            Map<String, Texture> externalTextures) throws IOException {
         assert assetManager != null;
         assert embeddedTextures != null;
+        assert externalTextures != null;
 
         this.mainKey = mainKey;
         this.assetManager = assetManager;
         this.embeddedTextures = embeddedTextures;
+        this.externalTextures = externalTextures;
 
         int postFlags = mainKey.flags();
         this.flipY = (postFlags & Assimp.aiProcess_FlipUVs) == 0x0;
@@ -316,6 +324,31 @@ class MaterialBuilder {
         return result;
     }
 
+    /**
+     * Enumerate the raw asset paths of external textures that the material is
+     * likely to use. Embedded textures, textures with non-zero indices, and
+     * textures of unknown semantic type are omitted.
+     *
+     * @param storeResult storage for the paths (not null, added to)
+     * @throws IOException if a texture property cannot be decoded
+     */
+    void listExternalTextures(Collection<String> storeResult)
+            throws IOException {
+        for (AIMaterialProperty property : propMap.values()) {
+            String materialKey = property.mKey().dataString();
+            boolean isFile = materialKey.equals(Assimp._AI_MATKEY_TEXTURE_BASE)
+                    || (materialKey.startsWith("$raw.")
+                    && materialKey.endsWith("|file"));
+            if (isFile && property.mIndex() == 0
+                    && property.mSemantic() != Assimp.aiTextureType_UNKNOWN) {
+                String string = PropertyUtils.toString(property);
+                if (!string.matches("^\\*\\d+$")) { // an external texture
+                    storeResult.add(string);
+                }
+            }
+        }
+    }
+
     /**
      * Test whether the material wants facet normals.
      *
@@ -1381,12 +1414,18 @@ class MaterialBuilder {
         if (string.matches("^\\*\\d+$")) { // an embedded texture:
             String indexString = string.substring(1);
             int textureIndex = Integer.parseInt(indexString);
-            result = embeddedTextures[textureIndex].clone();
+            result = embeddedTextures.get(textureIndex).clone();
 
         } else { // an external texture:
             //System.out.println("tex string=" + string);
-            TextureLoader textureLoader = mainKey.getTextureLoader();
-            result = textureLoader.load(string, mainKey, flipY, assetManager);
+            Texture preloaded = externalTextures.get(string);
+            if (preloaded == null) {
+                TextureLoader textureLoader = mainKey.getTextureLoader();
+                result = textureLoader.load(
+                        string, mainKey, flipY, assetManager);
+            } else {
+                result = preloaded.clone();
+            }
         }
         sampler.applyTo(result);
 
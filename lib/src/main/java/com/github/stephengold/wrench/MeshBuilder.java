@@ -57,6 +57,7 @@ import org.lwjgl.assimp.AIMesh;
 import org.lwjgl.assimp.AIVector3D;
 import org.lwjgl.assimp.AIVertexWeight;
 import org.lwjgl.assimp.Assimp;
+import org.lwjgl.system.MemoryUtil;
 
 /**
  * Gather the data needed to construct a JMonkeyEngine mesh.
@@ -413,6 +414,12 @@ class MeshBuilder {
 
     /**
      * Add an index buffer to the JMonkeyEngine mesh.
+     * <p>
+     * The face array is read directly from native memory, and indices are
+     * written directly into the final buffer in its own format, without
+     * creating a struct or buffer view for each face.
+     *
+     * @throws IOException if a face has the wrong number of indices
      */
     private void addIndexBuffer() throws IOException {
         AIFace.Buffer pFaces = aiMesh.mFaces();
@@ -420,26 +427,44 @@ class MeshBuilder {
         int indexCount = numFaces * vpp;
         IndexBuffer indexBuffer
                 = IndexBuffer.createIndexBuffer(vertexCount, indexCount);
+        Buffer ibData = indexBuffer.getBuffer();
+        VertexBuffer.Format ibFormat = indexBuffer.getFormat();
+        int bytesPerIndex = ibFormat.getComponentSize();
 
+        long faceAddress = pFaces.address();
+        long putAddress = MemoryUtil.memAddress(ibData);
         for (int faceIndex = 0; faceIndex < numFaces; ++faceIndex) {
-            AIFace face = pFaces.get(faceIndex);
-            IntBuffer pIndices = face.mIndices();
-            int numIndices = face.mNumIndices();
+            int numIndices = AIFace.nmNumIndices(faceAddress);
             if (numIndices != vpp) {
                 String message = String.format(
                         "Expected %d indices in face but found %d indices.",
                         vpp, numIndices);
                 throw new IOException(message);
             }
+
+            long getAddress
+                    = MemoryUtil.memGetAddress(faceAddress + AIFace.MINDICES);
             for (int j = 0; j < numIndices; ++j) {
-                int vertexIndex = pIndices.get(j);
-                indexBuffer.put(vertexIndex);
+                int vertexIndex = MemoryUtil.memGetInt(getAddress);
+                switch (bytesPerIndex) {
+                    case 1:
+                        MemoryUtil.memPutByte(putAddress, (byte) vertexIndex);
+                        break;
+                    case 2:
+                        MemoryUtil.memPutShort(
+                                putAddress, (short) vertexIndex);
+                        break;
+                    default:
+                        MemoryUtil.memPutInt(putAddress, vertexIndex);
+                }
+                getAddress += Integer.BYTES;
+                putAddress += bytesPerIndex;
             }
+            faceAddress += AIFace.SIZEOF;
         }
-        Buffer ibData = indexBuffer.getBuffer();
-        ibData.flip();
+        assert ibData.position() == 0 : ibData.position();
+        assert ibData.limit() == indexCount : ibData.limit();
 
-        VertexBuffer.Format ibFormat = indexBuffer.getFormat();
         jmeMesh.setBuffer(VertexBuffer.Type.Index, vpp, ibFormat, ibData);
     }
 
@@ -548,6 +573,26 @@ class MeshBuilder {
         }
     }
 
+    /**
+     * Copy tightly packed floats from native memory to a new direct buffer,
+     * using a single bulk copy. Assimp's vectors and colors consist of
+     * 32-bit floats without padding, so this converts an entire array.
+     *
+     * @param address the address of the first float (not 0)
+     * @param numFloats the number of floats to copy (&ge;0)
+     * @return a new direct buffer, ready for reading (not null)
+     */
+    private static FloatBuffer copyFloats(long address, int numFloats) {
+        assert address != MemoryUtil.NULL;
+        assert numFloats >= 0 : numFloats;
+
+        FloatBuffer result = BufferUtils.createFloatBuffer(numFloats);
+        long numBytes = (long) Float.BYTES * numFloats;
+        MemoryUtil.memCopy(address, MemoryUtil.memAddress(result), numBytes);
+
+        return result;
+    }
+
     /**
      * Alter in the W (orientation) components of the specified tangent vectors,
      * based on the corresponding binormals and normals.
@@ -593,17 +638,10 @@ class MeshBuilder {
     private static VertexBuffer toBinormalBuffer(
             AIVector3D.Buffer pAiBitangents) {
         int numVertices = pAiBitangents.capacity();
-        FloatBuffer floats = BufferUtils.createVector3Buffer(numVertices);
-
-        for (int vertexIndex = 0; vertexIndex < numVertices; ++vertexIndex) {
-            AIVector3D binormal = pAiBitangents.get(vertexIndex);
-            float x = binormal.x();
-            float y = binormal.y();
-            float z = binormal.z();
-            // TODO normalize?
-            floats.put(x).put(y).put(z);
-        }
-        floats.flip();
+        long address = pAiBitangents.address();
+        FloatBuffer floats
+                = copyFloats(address, MyVector3f.numAxes * numVertices);
+        // TODO normalize?
 
         VertexBuffer result = new VertexBuffer(VertexBuffer.Type.Binormal);
         result.setupData(VertexBuffer.Usage.Static, MyVector3f.numAxes,
@@ -621,18 +659,8 @@ class MeshBuilder {
      */
     private static VertexBuffer toColorBuffer(AIColor4D.Buffer pAiColors) {
         int numVertices = pAiColors.capacity();
-        int numFloats = 4 * numVertices;
-        FloatBuffer floats = BufferUtils.createFloatBuffer(numFloats);
-
-        for (int vertexIndex = 0; vertexIndex < numVertices; ++vertexIndex) {
-            AIColor4D color = pAiColors.get(vertexIndex);
-            float red = color.r();
-            float green = color.g();
-            float blue = color.b();
-            float alpha = color.a();
-            floats.put(red).put(green).put(blue).put(alpha);
-        }
-        floats.flip();
+        long address = pAiColors.address();
+        FloatBuffer floats = copyFloats(address, 4 * numVertices);
 
         VertexBuffer result = new VertexBuffer(VertexBuffer.Type.Color);
         result.setupData(VertexBuffer.Usage.Static, 4,
@@ -650,17 +678,10 @@ class MeshBuilder {
      */
     private static VertexBuffer toNormalBuffer(AIVector3D.Buffer pAiNormals) {
         int numVertices = pAiNormals.capacity();
-        FloatBuffer floats = BufferUtils.createVector3Buffer(numVertices);
-
-        for (int vertexIndex = 0; vertexIndex < numVertices; ++vertexIndex) {
-            AIVector3D normal = pAiNormals.get(vertexIndex);
-            // TODO normalize?
-            float x = normal.x();
-            float y = normal.y();
-            float z = normal.z();
-            floats.put(x).put(y).put(z);
-        }
-        floats.flip();
+        long address = pAiNormals.address();
+        FloatBuffer floats
+                = copyFloats(address, MyVector3f.numAxes * numVertices);
+        // TODO normalize?
 
         VertexBuffer result = new VertexBuffer(VertexBuffer.Type.Normal);
         result.setupData(VertexBuffer.Usage.Static, MyVector3f.numAxes,
@@ -680,16 +701,9 @@ class MeshBuilder {
     private static VertexBuffer toPositionBuffer(
             AIVector3D.Buffer pAiPositions) {
         int numVertices = pAiPositions.capacity();
-        FloatBuffer floats = BufferUtils.createVector3Buffer(numVertices);
-
-        for (int vertexIndex = 0; vertexIndex < numVertices; ++vertexIndex) {
-            AIVector3D position = pAiPositions.get(vertexIndex);
-            float x = position.x();
-            float y = position.y();
-            float z = position.z();
-            floats.put(x).put(y).put(z);
-        }
-        floats.flip();
+        long address = pAiPositions.address();
+        FloatBuffer floats
+                = copyFloats(address, MyVector3f.numAxes * numVertices);
 
         VertexBuffer result = new VertexBuffer(VertexBuffer.Type.Position);
         result.setupData(VertexBuffer.Usage.Static, MyVector3f.numAxes,
@@ -748,22 +762,25 @@ class MeshBuilder {
 
         int numVertices = pAiTexCoords.capacity();
         int numFloats = numVertices * numComponents;
-        FloatBuffer floats = BufferUtils.createFloatBuffer(numFloats);
+        FloatBuffer floats;
+        if (numComponents == MyVector3f.numAxes) { // tightly packed
+            long address = pAiTexCoords.address();
+            floats = copyFloats(address, numFloats);
 
-        for (int vertexIndex = 0; vertexIndex < numVertices; ++vertexIndex) {
-            AIVector3D texCoords = pAiTexCoords.get(vertexIndex);
-            float u = texCoords.x();
-            floats.put(u);
-            if (numComponents > 1) {
-                float v = texCoords.y();
-                floats.put(v);
-                if (numComponents > 2) {
-                    float w = texCoords.z();
-                    floats.put(w);
+        } else {
+            floats = BufferUtils.createFloatBuffer(numFloats);
+            for (int vertexIndex = 0; vertexIndex < numVertices;
+                    ++vertexIndex) {
+                AIVector3D texCoords = pAiTexCoords.get(vertexIndex);
+                float u = texCoords.x();
+                floats.put(u);
+                if (numComponents > 1) {
+                    float v = texCoords.y();
+                    floats.put(v);
                 }
             }
+            floats.flip();
         }
-        floats.flip();
 
         VertexBuffer result = new VertexBuffer(vbType);
         result.setupData(VertexBuffer.Usage.Static, numComponents,
@@ -0,0 +1,233 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.mesh.IndexBuffer;
+import com.jme3.util.BufferUtils;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Utility methods to split large JMonkeyEngine meshes into submeshes small
+ * enough for 16-bit indices.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class MeshSplitter {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum number of vertices in a mesh with 16-bit indices
+     */
+    final static int maxShortVertices = 65_535;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(MeshSplitter.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private MeshSplitter() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test whether the specified mesh can be split. Only indexed lists of
+     * points, lines, or triangles without morph targets are supported.
+     *
+     * @param mesh the mesh to test (not null, unaffected)
+     * @return true if it can be split, otherwise false
+     */
+    static boolean canSplit(Mesh mesh) {
+        boolean result;
+        if (mesh.getBuffer(VertexBuffer.Type.Index) == null
+                || mesh.hasMorphTargets()) {
+            result = false;
+        } else {
+            Mesh.Mode mode = mesh.getMode();
+            result = (mode == Mesh.Mode.Points || mode == Mesh.Mode.Lines
+                    || mode == Mesh.Mode.Triangles);
+        }
+
+        return result;
+    }
+
+    /**
+     * Split the specified mesh into submeshes, each with at most
+     * {@code maxVertices} vertices. Primitives are assigned to submeshes in
+     * their original order, and vertices shared by primitives in different
+     * submeshes are duplicated.
+     *
+     * @param mesh the mesh to split (not null, unaffected, splittable)
+     * @param maxVertices the maximum number of vertices per submesh (&ge;3)
+     * @return a new list of new meshes, in primitive order (not null, not
+     * empty)
+     */
+    static List<Mesh> split(Mesh mesh, int maxVertices) {
+        assert canSplit(mesh);
+        assert maxVertices >= 3 : maxVertices;
+
+        int vpp = vpp(mesh.getMode());
+        IndexBuffer indexBuffer = mesh.getIndexBuffer();
+        int indexCount = indexBuffer.size();
+        int vertexCount = mesh.getVertexCount();
+        /*
+         * For each vertex, the number of the most recent submesh to use it,
+         * so no per-submesh reset is needed:
+         */
+        int[] lastPart = new int[vertexCount];
+        Arrays.fill(lastPart, -1);
+
+        List<Mesh> result = new ArrayList<>(1 + vertexCount / maxVertices);
+        int partNumber = 0;
+        int startIndex = 0; // first index of the current submesh
+        int numPartVertices = 0;
+        for (int index = 0; index < indexCount; index += vpp) {
+            int numNew = countNewVertices(
+                    indexBuffer, index, vpp, lastPart, partNumber);
+            if (numPartVertices + numNew > maxVertices) {
+                // Finish the current submesh and begin a new one:
+                result.add(extractPart(mesh, startIndex, index));
+                ++partNumber;
+                startIndex = index;
+                numPartVertices = 0;
+                numNew = countNewVertices(
+                        indexBuffer, index, vpp, lastPart, partNumber);
+            }
+            numPartVertices += numNew;
+        }
+        result.add(extractPart(mesh, startIndex, indexCount));
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Count the vertices of the specified primitive that aren't yet used by
+     * the current submesh, and mark them as used.
+     *
+     * @param indexBuffer the indices of the mesh being split (not null,
+     * unaffected)
+     * @param startIndex the first index of the primitive (&ge;0)
+     * @param vpp the number of vertices per primitive (&ge;1, &le;3)
+     * @param lastPart the number of the most recent submesh to use each
+     * vertex (not null, modified)
+     * @param partNumber the number of the current submesh (&ge;0)
+     * @return the count (&ge;0, &le;vpp)
+     */
+    private static int countNewVertices(IndexBuffer indexBuffer,
+            int startIndex, int vpp, int[] lastPart, int partNumber) {
+        int result = 0;
+        for (int j = 0; j < vpp; ++j) {
+            int vertexIndex = indexBuffer.get(startIndex + j);
+            if (lastPart[vertexIndex] != partNumber) {
+                lastPart[vertexIndex] = partNumber;
+                ++result;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Create a submesh containing the specified range of indices.
+     *
+     * @param mesh the mesh to extract from (not null, unaffected)
+     * @param startIndex the first index to include (&ge;0)
+     * @param endIndex one past the last index to include (&gt;startIndex)
+     * @return a new mesh (not null)
+     */
+    private static Mesh extractPart(Mesh mesh, int startIndex, int endIndex) {
+        assert endIndex > startIndex : endIndex;
+
+        Mesh.Mode mode = mesh.getMode();
+        int vpp = vpp(mode);
+        IndexBuffer indexBuffer = mesh.getIndexBuffer();
+        int numIndices = endIndex - startIndex;
+        IntBuffer indices = BufferUtils.createIntBuffer(numIndices);
+        for (int index = startIndex; index < endIndex; ++index) {
+            int vertexIndex = indexBuffer.get(index);
+            indices.put(vertexIndex);
+        }
+        indices.flip();
+
+        Mesh result = new Mesh();
+        result.setMode(mode);
+        result.setBuffer(VertexBuffer.Type.Index, vpp, indices);
+        /*
+         * Copy the referenced vertices (including any bone and bind-pose
+         * data) and renumber the indices, which selects 16-bit indices
+         * if the submesh is small enough:
+         */
+        result.extractVertexData(mesh);
+        result.setMaxNumWeights(mesh.getMaxNumWeights());
+        result.updateCounts();
+        result.updateBound();
+
+        return result;
+    }
+
+    /**
+     * Return the number of vertices per primitive for the specified mode.
+     *
+     * @param mode the mode of a splittable mesh (not null)
+     * @return the count (&ge;1, &le;3)
+     */
+    private static int vpp(Mesh.Mode mode) {
+        int result;
+        switch (mode) {
+            case Points:
+                result = 1;
+                break;
+            case Lines:
+                result = 2;
+                break;
+            case Triangles:
+                result = 3;
+                break;
+            default:
+                throw new IllegalArgumentException("mode = " + mode);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetManager;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An optional process-wide record of asset paths that an AssetManager failed
+ * to locate, so that repeated probes by Assimp importers (for optional
+ * {@code .mtl} files, alternate extensions, sibling files, and so on) needn't
+ * query every registered locator again during a batch of imports.
+ * <p>
+ * Misses are keyed by asset path and by the identity of the AssetManager.
+ * Each miss expires after a configurable time-to-live. At most 4096 misses are
+ * retained; beyond that, the oldest are forgotten. The cache is disabled by
+ * default. Within a single import, misses are always remembered.
+ * <p>
+ * If assets are added or locators are registered during a batch, the
+ * application should invoke {@link #invalidate()}.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class NegativeLookupCache {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum number of misses retained
+     */
+    final private static int maxEntries = 4096;
+    /**
+     * longest time-to-live that can be represented (in nanoseconds)
+     */
+    final private static long maxTtlNanos = Long.MAX_VALUE / 2;
+    /**
+     * number of nanoseconds in a millisecond
+     */
+    final private static long nanosPerMilli = 1_000_000L;
+    /**
+     * map keys to expiration times (in nanoseconds, as per
+     * {@code System.nanoTime()}), oldest first
+     */
+    final private static Map<AssetCacheKey, Long> expirations
+            = new LinkedHashMap<>();
+    // *************************************************************************
+    // fields
+
+    /**
+     * number of probes answered from the cache since the last reset
+     */
+    private static long numHits = 0L;
+    /**
+     * time-to-live for each miss (in milliseconds, &ge;0, 0 &rarr; disabled)
+     */
+    private static long ttlMillis = 0L;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private NegativeLookupCache() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Record that the specified asset could not be located, if the cache is
+     * enabled. Should be invoked only after the locators were actually
+     * queried, since it restarts the time-to-live.
+     *
+     * @param assetManager the AssetManager that was queried (not null, alias
+     * created)
+     * @param assetPath the asset path (not null)
+     */
+    static synchronized void add(AssetManager assetManager, String assetPath) {
+        if (ttlMillis > 0L) {
+            long now = System.nanoTime();
+            removeExpired(now);
+
+            long ttlNanos = (ttlMillis > maxTtlNanos / nanosPerMilli)
+                    ? maxTtlNanos : ttlMillis * nanosPerMilli;
+            long expiration = now + ttlNanos;
+
+            // Re-insert the key so that the map remains in expiration order:
+            AssetCacheKey key = new AssetCacheKey(assetManager, assetPath);
+            expirations.remove(key);
+            expirations.put(key, expiration);
+
+            // Forget the oldest misses if there are too many:
+            Iterator<AssetCacheKey> iterator = expirations.keySet().iterator();
+            while (expirations.size() > maxEntries) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Test whether the specified asset is known to be missing.
+     *
+     * @param assetManager the AssetManager to be queried (not null,
+     * unaffected)
+     * @param assetPath the asset path (not null)
+     * @return true if a miss is recorded and unexpired, otherwise false
+     */
+    static synchronized boolean contains(
+            AssetManager assetManager, String assetPath) {
+        boolean result = false;
+        if (ttlMillis > 0L) {
+            AssetCacheKey key = new AssetCacheKey(assetManager, assetPath);
+            Long expiration = expirations.get(key);
+            if (expiration != null) {
+                if (System.nanoTime() - expiration < 0L) {
+                    result = true;
+                    ++numHits;
+                } else {
+                    expirations.remove(key);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Return the number of probes answered from the cache since the counter
+     * was last reset.
+     *
+     * @return the count (&ge;0)
+     */
+    public static synchronized long countHits() {
+        return numHits;
+    }
+
+    /**
+     * Forget all recorded misses. The time-to-live and the counter are
+     * unaffected.
+     */
+    public static synchronized void invalidate() {
+        expirations.clear();
+    }
+
+    /**
+     * Test whether the cache is enabled.
+     *
+     * @return true if enabled, otherwise false
+     */
+    public static synchronized boolean isEnabled() {
+        boolean result = (ttlMillis > 0L);
+        return result;
+    }
+
+    /**
+     * Reset the hit counter to zero.
+     */
+    public static synchronized void resetCounter() {
+        numHits = 0L;
+    }
+
+    /**
+     * Alter the time-to-live for recorded misses. Misses that are already
+     * recorded keep their original expiration times.
+     *
+     * @param milliseconds the desired time-to-live (in milliseconds, &ge;0,
+     * 0 &rarr; disable the cache, default=0)
+     */
+    public static synchronized void setTtl(long milliseconds) {
+        if (milliseconds < 0L) {
+            throw new IllegalArgumentException(
+                    "milliseconds = " + milliseconds);
+        }
+
+        ttlMillis = milliseconds;
+        if (milliseconds == 0L) {
+            expirations.clear();
+        }
+    }
+
+    /**
+     * Return the time-to-live for recorded misses.
+     *
+     * @return the time-to-live (in milliseconds, &ge;0, 0 means the cache is
+     * disabled)
+     */
+    public static synchronized long ttl() {
+        return ttlMillis;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Remove expired misses from the head of the map. Since misses are stored
+     * oldest first, this stops at the first unexpired one, so the cost is
+     * proportional to the number removed. (After a change in the
+     * time-to-live, a few expired misses may linger until looked up.)
+     *
+     * @param now the current time (in nanoseconds, as per
+     * {@code System.nanoTime()})
+     */
+    private static void removeExpired(long now) {
+        Iterator<Long> iterator = expirations.values().iterator();
+        while (iterator.hasNext()) {
+            long expiration = iterator.next();
+            if (now - expiration < 0L) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+}
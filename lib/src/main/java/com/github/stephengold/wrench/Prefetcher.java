@@ -0,0 +1,321 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility methods to discover the files that a main asset references and to
+ * fetch them in parallel before Assimp asks for them.
+ * <p>
+ * Only dependencies that Assimp itself reads are discovered: glTF buffers
+ * ({@code buffers[].uri}) and OBJ material libraries ({@code mtllib}).
+ * External textures are loaded later, via the AssetManager.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class Prefetcher {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * daemon threads for fetching dependencies (the work is I/O-bound, so the
+     * pool isn't bounded by the number of CPUs)
+     */
+    final private static ExecutorService executor
+            = Executors.newCachedThreadPool((Runnable runnable) -> {
+                Thread result = new Thread(runnable, "MonkeyWrench prefetch");
+                result.setDaemon(true);
+                return result;
+            });
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(Prefetcher.class.getName());
+    /**
+     * match the start of the "buffers" array in JSON
+     */
+    final private static Pattern buffersPattern
+            = Pattern.compile("\"buffers\"\\s*:\\s*\\[");
+    /**
+     * match the value of a "uri" property in JSON
+     */
+    final private static Pattern uriPattern
+            = Pattern.compile("\"uri\"\\s*:\\s*\"([^\"]*)\"");
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private Prefetcher() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Apply the specified fetcher to each of the specified asset paths in
+     * parallel and wait for all of them to complete. Failures are logged and
+     * otherwise ignored: Assimp will encounter them again when it opens the
+     * files.
+     *
+     * @param assetPaths the paths to fetch (not null, unaffected)
+     * @param fetcher the function to apply (not null)
+     */
+    static void fetchAll(
+            Collection<String> assetPaths, Consumer<String> fetcher) {
+        List<Future<?>> futures = new ArrayList<>(assetPaths.size());
+        for (String assetPath : assetPaths) {
+            Future<?> future = executor.submit(() -> fetcher.accept(assetPath));
+            futures.add(future);
+        }
+
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (CancellationException | ExecutionException exception) {
+                logger.log(Level.FINE, "Failed to prefetch.", exception);
+            } catch (InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Enumerate the files referenced by the specified main asset.
+     *
+     * @param assetPath the path to the main asset (not null)
+     * @param content the content of the main asset (not null, unaffected)
+     * @return a new list of asset paths, relative to the main asset's folder
+     * (not null, may be empty)
+     */
+    static List<String> listDependencies(String assetPath, ByteBuffer content) {
+        String lowerPath = assetPath.toLowerCase(Locale.ROOT);
+
+        List<String> result;
+        if (lowerPath.endsWith(".gltf")) {
+            result = listGltfBuffers(content);
+        } else if (lowerPath.endsWith(".obj")) {
+            result = listMaterialLibraries(content);
+        } else {
+            result = new ArrayList<>(0);
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Decode a URI reference that appears in a glTF document.
+     *
+     * @param uri the encoded URI reference (not null)
+     * @return the decoded path (not null)
+     */
+    private static String decodeUri(String uri) {
+        // URLDecoder would convert plus signs to spaces, so protect them:
+        String protectedUri = uri.replace("+", "%2B");
+
+        String result;
+        try {
+            result = URLDecoder.decode(protectedUri, "UTF-8");
+        } catch (IllegalArgumentException
+                | UnsupportedEncodingException exception) {
+            result = uri;
+        }
+
+        return result;
+    }
+
+    /**
+     * Find the end of the JSON array that begins at the specified index.
+     *
+     * @param json the JSON text (not null)
+     * @param startIndex the index of the opening bracket (&ge;0)
+     * @return the index just past the closing bracket, or the length of the
+     * text if the array isn't closed
+     */
+    private static int endOfArray(String json, int startIndex) {
+        assert json.charAt(startIndex) == '[';
+
+        int depth = 0;
+        boolean inString = false;
+        int result = json.length();
+        for (int i = startIndex; i < json.length(); ++i) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    ++i; // skip the escaped character
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '[' || c == '{') {
+                ++depth;
+            } else if (c == ']' || c == '}') {
+                --depth;
+                if (depth == 0) {
+                    result = i + 1;
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the specified byte is a space, tab, or carriage return.
+     *
+     * @param b the byte to test
+     * @return true if blank, otherwise false
+     */
+    private static boolean isBlank(byte b) {
+        boolean result = (b == ' ' || b == '\t' || b == '\r');
+        return result;
+    }
+
+    /**
+     * Enumerate the external buffers referenced by a glTF document. Embedded
+     * ("data:") buffers are skipped.
+     *
+     * @param content the JSON content (not null, unaffected)
+     * @return a new list of relative paths (not null)
+     */
+    private static List<String> listGltfBuffers(ByteBuffer content) {
+        String json = StandardCharsets.UTF_8.decode(content.duplicate())
+                .toString();
+        List<String> result = new ArrayList<>(2);
+
+        Matcher keyMatcher = buffersPattern.matcher(json);
+        if (keyMatcher.find()) {
+            int startIndex = keyMatcher.end() - 1;
+            int endIndex = endOfArray(json, startIndex);
+            Matcher uriMatcher = uriPattern.matcher(json);
+            uriMatcher.region(startIndex, endIndex);
+            while (uriMatcher.find()) {
+                String uri = uriMatcher.group(1);
+                if (!uri.startsWith("data:")) {
+                    String path = decodeUri(uri);
+                    result.add(path);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Enumerate the material libraries referenced by an OBJ file. The content
+     * is scanned byte-by-byte, and only {@code mtllib} lines are decoded.
+     *
+     * @param content the OBJ content (not null, unaffected)
+     * @return a new list of relative paths (not null)
+     */
+    private static List<String> listMaterialLibraries(ByteBuffer content) {
+        byte[] keyword = "mtllib".getBytes(StandardCharsets.US_ASCII);
+        List<String> result = new ArrayList<>(1);
+
+        int limit = content.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && content.get(lineEnd) != '\n') {
+                ++lineEnd;
+            }
+
+            int index = lineStart;
+            while (index < lineEnd && isBlank(content.get(index))) {
+                ++index;
+            }
+            if (startsWith(content, index, lineEnd, keyword)) {
+                index += keyword.length;
+                byte[] bytes = new byte[lineEnd - index];
+                for (int i = 0; i < bytes.length; ++i) {
+                    bytes[i] = content.get(index + i);
+                }
+                // Assimp treats the rest of the line as a single filename:
+                String fileName
+                        = new String(bytes, StandardCharsets.UTF_8).trim();
+                if (!fileName.isEmpty()) {
+                    result.add(fileName);
+                }
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the specified region of a buffer starts with the specified
+     * keyword followed by a blank.
+     *
+     * @param buffer the buffer to test (not null, unaffected)
+     * @param start the index of the first byte in the region (&ge;0)
+     * @param end the index past the last byte in the region (&ge;start)
+     * @param keyword the keyword to match (not null, unaffected)
+     * @return true if it matches, otherwise false
+     */
+    private static boolean startsWith(
+            ByteBuffer buffer, int start, int end, byte[] keyword) {
+        boolean result = (end - start > keyword.length)
+                && isBlank(buffer.get(start + keyword.length));
+        for (int i = 0; result && i < keyword.length; ++i) {
+            result = (buffer.get(start + i) == keyword[i]);
+        }
+
+        return result;
+    }
+}
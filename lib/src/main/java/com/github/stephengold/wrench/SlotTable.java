@@ -0,0 +1,124 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import java.util.Arrays;
+
+/**
+ * A table of objects indexed by small integers ("slots"), used to locate Java
+ * objects from the user data of native structs in O(1) time.
+ * <p>
+ * Insertion and removal are synchronized. Lookup is lock-free and allocates
+ * nothing, which makes it suitable for use in native callbacks. A thread
+ * always sees the elements that it inserted itself.
+ *
+ * @param <T> the type of element
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SlotTable<T> {
+    // *************************************************************************
+    // fields
+
+    /**
+     * number of occupied slots
+     */
+    private int numElements = 0;
+    /**
+     * storage for the elements (unused slots are null)
+     */
+    private volatile Object[] slots = new Object[8];
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Insert the specified element into an unused slot, enlarging the table if
+     * necessary.
+     *
+     * @param element the element to insert (not null, alias created)
+     * @return the index of the slot (&ge;0)
+     */
+    synchronized int add(T element) {
+        assert element != null;
+
+        Object[] array = slots;
+        int result = 0;
+        while (result < array.length && array[result] != null) {
+            ++result;
+        }
+        if (result == array.length) {
+            array = Arrays.copyOf(array, 2 * array.length);
+        }
+        array[result] = element;
+        this.slots = array; // publish the (possibly enlarged) array
+        ++numElements;
+
+        return result;
+    }
+
+    /**
+     * Access the element in the specified slot.
+     *
+     * @param slot the index of the slot (&ge;0)
+     * @return the pre-existing element, or null if the slot is unused
+     */
+    @SuppressWarnings("unchecked")
+    T get(int slot) {
+        Object[] array = slots;
+        T result = null;
+        if (slot >= 0 && slot < array.length) {
+            result = (T) array[slot];
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the table is empty.
+     *
+     * @return true if no slots are occupied, otherwise false
+     */
+    synchronized boolean isEmpty() {
+        boolean result = (numElements == 0);
+        return result;
+    }
+
+    /**
+     * Remove the element (if any) from the specified slot.
+     *
+     * @param slot the index of the slot (&ge;0)
+     */
+    synchronized void remove(int slot) {
+        Object[] array = slots;
+        if (array[slot] != null) {
+            array[slot] = null;
+            --numElements;
+        }
+        this.slots = array; // publish the change
+    }
+}
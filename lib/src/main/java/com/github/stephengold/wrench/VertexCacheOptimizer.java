@@ -0,0 +1,389 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.mesh.IndexBuffer;
+import java.nio.Buffer;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Utility methods to reorder the triangles and vertices of JMonkeyEngine
+ * meshes for locality in the GPU's post-transform vertex cache and in vertex
+ * fetching.
+ * <p>
+ * Triangles are reordered using Tom Forsyth's linear-speed algorithm,
+ * except that when no cached vertex has remaining triangles, the next
+ * unused triangle in the original order is chosen, which keeps the pass
+ * linear and deterministic. Vertices are then renumbered in order of first
+ * use.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class VertexCacheOptimizer {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * exponent applied to the cache-position score
+     */
+    final private static double cacheDecayPower = 1.5;
+    /**
+     * exponent applied to the number of remaining triangles
+     */
+    final private static double valenceBoostPower = -0.5;
+    /**
+     * score for vertices used by the most recently added triangle
+     */
+    final private static float lastTriangleScore = 0.75f;
+    /**
+     * scale factor for the remaining-triangle score
+     */
+    final private static float valenceBoostScale = 2f;
+    /**
+     * number of vertices in the modeled LRU cache, which is also the size of
+     * the FIFO cache used to measure the results
+     */
+    final static int cacheSize = 32;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(VertexCacheOptimizer.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private VertexCacheOptimizer() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test whether the specified mesh can be optimized. It must consist of
+     * indexed triangles, have no morph targets, and its vertex buffers must be
+     * direct, fully populated, and not interleaved.
+     *
+     * @param mesh the mesh to test (not null, unaffected)
+     * @return true if it can be optimized, otherwise false
+     */
+    static boolean canOptimize(Mesh mesh) {
+        boolean result = mesh.getMode() == Mesh.Mode.Triangles
+                && mesh.getBuffer(VertexBuffer.Type.Index) != null
+                && mesh.getBuffer(VertexBuffer.Type.InterleavedData) == null
+                && !mesh.hasMorphTargets();
+        if (result) {
+            int numVertices = mesh.getVertexCount();
+            for (VertexBuffer vertexBuffer : mesh.getBufferList()) {
+                Buffer data = vertexBuffer.getData();
+                int numComponents = vertexBuffer.getNumComponents();
+                if (vertexBuffer.getBufferType() != VertexBuffer.Type.Index
+                        && (data == null || !data.isDirect()
+                        || data.limit() != numVertices * numComponents
+                        || vertexBuffer.getStride() != 0)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reorder the triangles and vertices of the specified mesh, then report
+     * the average cache-miss ratio (ACMR, misses per triangle) and average
+     * transform-to-vertex ratio (ATVR, misses per referenced vertex) before
+     * and after, as measured with a simulated FIFO cache.
+     *
+     * @param mesh the mesh to modify (not null, {@code canOptimize(mesh)}
+     * must be true)
+     * @param qName the quoted name of the mesh, for logging (not null)
+     * @param logLevel the level at which to report the results (not null)
+     */
+    static void optimize(Mesh mesh, String qName, Level logLevel) {
+        assert canOptimize(mesh);
+
+        IndexBuffer indexBuffer = mesh.getIndexBuffer();
+        int numIndices = indexBuffer.size();
+        int[] oldIndices = new int[numIndices];
+        for (int i = 0; i < numIndices; ++i) {
+            oldIndices[i] = indexBuffer.get(i);
+        }
+
+        int numVertices = mesh.getVertexCount();
+        int oldMisses = countCacheMisses(oldIndices, numVertices);
+        int[] newIndices = reorderTriangles(oldIndices, numVertices);
+
+        // Renumber the vertices in order of first use:
+        int[] newVertexIds = new int[numVertices];
+        Arrays.fill(newVertexIds, -1);
+        int numReferenced = 0;
+        for (int i = 0; i < numIndices; ++i) {
+            int oldId = newIndices[i];
+            if (newVertexIds[oldId] == -1) {
+                newVertexIds[oldId] = numReferenced;
+                ++numReferenced;
+            }
+            newIndices[i] = newVertexIds[oldId];
+        }
+        int nextId = numReferenced;
+        for (int oldId = 0; oldId < numVertices; ++oldId) {
+            if (newVertexIds[oldId] == -1) { // unreferenced: move to the end
+                newVertexIds[oldId] = nextId;
+                ++nextId;
+            }
+        }
+
+        for (VertexBuffer vertexBuffer : mesh.getBufferList()) {
+            if (vertexBuffer.getBufferType() != VertexBuffer.Type.Index) {
+                permute(vertexBuffer, newVertexIds);
+            }
+        }
+        for (int i = 0; i < numIndices; ++i) {
+            indexBuffer.put(i, newIndices[i]);
+        }
+        mesh.getBuffer(VertexBuffer.Type.Index).setUpdateNeeded();
+
+        if (logger.isLoggable(logLevel) && numReferenced > 0) {
+            int newMisses = countCacheMisses(newIndices, numVertices);
+            int numTriangles = numIndices / 3;
+            String message = String.format("Optimized mesh %s: "
+                    + "ACMR %.3f -> %.3f, ATVR %.3f -> %.3f", qName,
+                    oldMisses / (float) numTriangles,
+                    newMisses / (float) numTriangles,
+                    oldMisses / (float) numReferenced,
+                    newMisses / (float) numReferenced);
+            logger.log(logLevel, message);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Count the misses in a simulated FIFO vertex cache.
+     *
+     * @param indices the vertex indices, in drawing order (not null,
+     * unaffected)
+     * @param numVertices the number of vertices in the mesh (&ge;0)
+     * @return the number of misses (&ge;0)
+     */
+    private static int countCacheMisses(int[] indices, int numVertices) {
+        // Each vertex records the miss count at which it entered the cache:
+        int[] entryTimes = new int[numVertices];
+        Arrays.fill(entryTimes, -cacheSize - 1);
+
+        int result = 0;
+        for (int vertexId : indices) {
+            if (result - entryTimes[vertexId] > cacheSize) {
+                entryTimes[vertexId] = result;
+                ++result;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reorder the vertices of the specified buffer.
+     *
+     * @param vertexBuffer the buffer to modify (not null)
+     * @param newVertexIds the new ID of each vertex (not null, unaffected)
+     */
+    private static void permute(VertexBuffer vertexBuffer, int[] newVertexIds) {
+        VertexBuffer.Format format = vertexBuffer.getFormat();
+        int numComponents = vertexBuffer.getNumComponents();
+        int numVertices = newVertexIds.length;
+        Buffer oldData = vertexBuffer.getData();
+        Buffer newData = VertexBuffer.createBuffer(
+                format, numComponents, numVertices);
+
+        int bytesPerVertex = numComponents * format.getComponentSize();
+        long oldAddress = MemoryUtil.memAddress0(oldData);
+        long newAddress = MemoryUtil.memAddress0(newData);
+        for (int oldId = 0; oldId < numVertices; ++oldId) {
+            long newId = newVertexIds[oldId];
+            MemoryUtil.memCopy(oldAddress + (long) oldId * bytesPerVertex,
+                    newAddress + newId * bytesPerVertex, bytesPerVertex);
+        }
+
+        vertexBuffer.updateData(newData);
+    }
+
+    /**
+     * Reorder the specified triangles for post-transform cache locality.
+     *
+     * @param indices the vertex indices of the triangles (not null, length a
+     * multiple of 3, unaffected)
+     * @param numVertices the number of vertices in the mesh (&ge;0)
+     * @return a new array of reordered indices (not null)
+     */
+    private static int[] reorderTriangles(int[] indices, int numVertices) {
+        int numTriangles = indices.length / 3;
+
+        // Build a list of adjacent triangles for each vertex:
+        int[] numRemaining = new int[numVertices];
+        for (int vertexId : indices) {
+            ++numRemaining[vertexId];
+        }
+        int[] adjacencyStart = new int[numVertices + 1];
+        for (int vertexId = 0; vertexId < numVertices; ++vertexId) {
+            adjacencyStart[vertexId + 1]
+                    = adjacencyStart[vertexId] + numRemaining[vertexId];
+        }
+        int[] adjacency = new int[indices.length];
+        int[] fill = Arrays.copyOf(adjacencyStart, numVertices);
+        for (int i = 0; i < indices.length; ++i) {
+            int vertexId = indices[i];
+            adjacency[fill[vertexId]] = i / 3;
+            ++fill[vertexId];
+        }
+
+        float[] vertexScores = new float[numVertices];
+        for (int vertexId = 0; vertexId < numVertices; ++vertexId) {
+            vertexScores[vertexId]
+                    = vertexScore(-1, numRemaining[vertexId]);
+        }
+
+        boolean[] isAdded = new boolean[numTriangles];
+        int[] cache = new int[cacheSize + 3];
+        int cacheLength = 0;
+        int[] newCache = new int[cacheSize + 3];
+        int[] result = new int[indices.length];
+        int nextUnadded = 0;
+        int bestTriangle = -1;
+
+        for (int outputI = 0; outputI < numTriangles; ++outputI) {
+            if (bestTriangle == -1) {
+                while (isAdded[nextUnadded]) {
+                    ++nextUnadded;
+                }
+                bestTriangle = nextUnadded;
+            }
+
+            // Add the best triangle to the output:
+            isAdded[bestTriangle] = true;
+            int newLength = 0;
+            for (int j = 0; j < 3; ++j) {
+                int vertexId = indices[3 * bestTriangle + j];
+                result[3 * outputI + j] = vertexId;
+                newCache[newLength] = vertexId;
+                ++newLength;
+
+                // Remove the triangle from the vertex's remaining list:
+                int start = adjacencyStart[vertexId];
+                int last = start + numRemaining[vertexId] - 1;
+                for (int k = start; k <= last; ++k) {
+                    if (adjacency[k] == bestTriangle) {
+                        adjacency[k] = adjacency[last];
+                        adjacency[last] = bestTriangle;
+                        --numRemaining[vertexId];
+                        break;
+                    }
+                }
+            }
+
+            // Move the triangle's vertices to the front of the LRU cache:
+            for (int k = 0; k < cacheLength; ++k) {
+                int vertexId = cache[k];
+                if (vertexId != newCache[0] && vertexId != newCache[1]
+                        && vertexId != newCache[2]) {
+                    newCache[newLength] = vertexId;
+                    ++newLength;
+                }
+            }
+            int[] swap = cache;
+            cache = newCache;
+            newCache = swap;
+            cacheLength = Math.min(newLength, cacheSize);
+
+            // Update scores, including those of vertices just evicted:
+            for (int k = 0; k < newLength; ++k) {
+                int vertexId = cache[k];
+                int position = (k < cacheSize) ? k : -1;
+                vertexScores[vertexId]
+                        = vertexScore(position, numRemaining[vertexId]);
+            }
+
+            // Choose the best remaining triangle that uses a cached vertex:
+            bestTriangle = -1;
+            float bestScore = -1f;
+            for (int k = 0; k < cacheLength; ++k) {
+                int vertexId = cache[k];
+                int start = adjacencyStart[vertexId];
+                int end = start + numRemaining[vertexId];
+                for (int m = start; m < end; ++m) {
+                    int triangle = adjacency[m];
+                    float score = vertexScores[indices[3 * triangle]]
+                            + vertexScores[indices[3 * triangle + 1]]
+                            + vertexScores[indices[3 * triangle + 2]];
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestTriangle = triangle;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculate the Forsyth score of a vertex.
+     *
+     * @param cachePosition the vertex's position in the LRU cache, or -1 if
+     * not cached
+     * @param numRemaining the number of triangles that use the vertex and
+     * haven't been added yet (&ge;0)
+     * @return the score (&ge;0) or -1 if no triangles remain
+     */
+    private static float vertexScore(int cachePosition, int numRemaining) {
+        float result = -1f;
+        if (numRemaining > 0) {
+            result = 0f;
+            if (cachePosition >= 3) {
+                double ratio = 1.0 - (cachePosition - 3) / (cacheSize - 3.0);
+                result = (float) Math.pow(ratio, cacheDecayPower);
+            } else if (cachePosition >= 0) {
+                result = lastTriangleScore;
+            }
+            result += valenceBoostScale
+                    * (float) Math.pow(numRemaining, valenceBoostPower);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.math.FastMath;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utility methods to re-encode the float vertex buffers of JMonkeyEngine
+ * meshes in smaller, normalized integer formats.
+ * <p>
+ * Each candidate buffer is encoded, decoded, and compared with the original.
+ * If the maximum error exceeds the tolerance for its type (for instance,
+ * because texture coordinates lie outside [0, 1]), the original buffer is
+ * kept.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class VertexCompactor {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum error tolerated in color components
+     */
+    final private static float colorTolerance = 0.5f / 255f + 1e-6f;
+    /**
+     * maximum error tolerated in components of normals and tangents
+     */
+    final private static float directionTolerance = 0.5f / 127f + 1e-6f;
+    /**
+     * maximum error tolerated in texture coordinates
+     */
+    final private static float uvTolerance = 0.5f / 65_535f + 1e-7f;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(VertexCompactor.class.getName());
+    /**
+     * types of the vertex buffers that hold texture coordinates
+     */
+    final private static VertexBuffer.Type[] uvTypes = {
+        VertexBuffer.Type.TexCoord, VertexBuffer.Type.TexCoord2,
+        VertexBuffer.Type.TexCoord3, VertexBuffer.Type.TexCoord4,
+        VertexBuffer.Type.TexCoord5, VertexBuffer.Type.TexCoord6,
+        VertexBuffer.Type.TexCoord7, VertexBuffer.Type.TexCoord8
+    };
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private VertexCompactor() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Re-encode the vertex buffers of the specified mesh where possible:
+     * normals and tangents as normalized bytes, colors as normalized unsigned
+     * bytes, and texture coordinates as normalized unsigned shorts. Positions
+     * are left alone. So are normals and tangents of skinned meshes, since
+     * software skinning requires floats. Meshes with morph targets are left
+     * alone entirely.
+     *
+     * @param mesh the mesh to modify (not null)
+     * @param qName the quoted name of the mesh, for logging (not null)
+     * @param logLevel the level at which to report the results (not null)
+     * @return the number of bytes saved (&ge;0)
+     */
+    static long compact(Mesh mesh, String qName, Level logLevel) {
+        long result = 0L;
+        if (!mesh.hasMorphTargets()) {
+            StringBuilder report = new StringBuilder(80);
+            if (mesh.getBuffer(VertexBuffer.Type.BoneIndex) == null) {
+                result += encode(mesh, VertexBuffer.Type.Normal,
+                        VertexBuffer.Format.Byte, directionTolerance, report);
+                result += encode(mesh, VertexBuffer.Type.Tangent,
+                        VertexBuffer.Format.Byte, directionTolerance, report);
+            }
+            result += encode(mesh, VertexBuffer.Type.Color,
+                    VertexBuffer.Format.UnsignedByte, colorTolerance, report);
+            for (VertexBuffer.Type uvType : uvTypes) {
+                result += encode(mesh, uvType,
+                        VertexBuffer.Format.UnsignedShort, uvTolerance, report);
+            }
+
+            if (report.length() > 0 && logger.isLoggable(logLevel)) {
+                logger.log(logLevel, "Compacted mesh {0}, saving {1} bytes:{2}",
+                        new Object[]{qName, result, report});
+            }
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Re-encode the specified float buffer of the specified mesh in the
+     * specified normalized format, provided the error is tolerable.
+     *
+     * @param mesh the mesh to modify (not null)
+     * @param type the type of buffer to encode (not null)
+     * @param format the desired format (Byte, UnsignedByte, or UnsignedShort)
+     * @param tolerance the maximum error to tolerate (&gt;0)
+     * @param report a description of each buffer examined (not null, appended
+     * to)
+     * @return the number of bytes saved (&ge;0)
+     */
+    private static long encode(Mesh mesh, VertexBuffer.Type type,
+            VertexBuffer.Format format, float tolerance,
+            StringBuilder report) {
+        long result = 0L;
+        VertexBuffer oldBuffer = mesh.getBuffer(type);
+        if (oldBuffer == null
+                || oldBuffer.getFormat() != VertexBuffer.Format.Float) {
+            return result;
+        }
+
+        FloatBuffer floats = (FloatBuffer) oldBuffer.getData();
+        int numFloats = floats.limit();
+        float minValue;
+        float scale;
+        Buffer data;
+        switch (format) {
+            case Byte:
+                minValue = -1f;
+                scale = 127f;
+                data = BufferUtils.createByteBuffer(numFloats);
+                break;
+            case UnsignedByte:
+                minValue = 0f;
+                scale = 255f;
+                data = BufferUtils.createByteBuffer(numFloats);
+                break;
+            case UnsignedShort:
+                minValue = 0f;
+                scale = 65_535f;
+                data = BufferUtils.createShortBuffer(numFloats);
+                break;
+            default:
+                throw new IllegalArgumentException("format = " + format);
+        }
+
+        // Encode each component and measure the error of decoding it:
+        float maxError = 0f;
+        for (int i = 0; i < numFloats; ++i) {
+            float value = floats.get(i);
+            float clamped = FastMath.clamp(value, minValue, 1f);
+            int quantized = Math.round(clamped * scale);
+            float error = Math.abs(quantized / scale - value);
+            if (!(error <= maxError)) { // also catches NaN
+                maxError = error;
+            }
+            if (data instanceof ByteBuffer) {
+                ((ByteBuffer) data).put(i, (byte) quantized);
+            } else {
+                ((ShortBuffer) data).put(i, (short) quantized);
+            }
+        }
+
+        if (maxError <= tolerance) {
+            int numComponents = oldBuffer.getNumComponents();
+            VertexBuffer newBuffer = new VertexBuffer(type);
+            newBuffer.setupData(
+                    oldBuffer.getUsage(), numComponents, format, data);
+            newBuffer.setNormalized(true);
+            mesh.clearBuffer(type);
+            mesh.setBuffer(newBuffer);
+
+            int bytesPerComponent = format.getComponentSize();
+            result = (long) numFloats * (Float.BYTES - bytesPerComponent);
+            report.append(String.format(
+                    " %s as %s (max error %.2g);", type, format, maxError));
+        } else {
+            report.append(String.format(
+                    " %s kept as Float (max error %.2g);", type, maxError));
+        }
+
+        return result;
+    }
+}
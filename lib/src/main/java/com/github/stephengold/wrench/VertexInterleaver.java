@@ -0,0 +1,205 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Utility methods to interleave the vertex buffers of JMonkeyEngine meshes,
+ * changing the layout that's uploaded to the GPU.
+ * <p>
+ * Interleaving is a post-pass over meshes that are already fully built, so it
+ * allocates the interleaved buffer in addition to the per-attribute buffers.
+ * <p>
+ * Unlike {@code Mesh.setInterleaved()}, the position buffer retains its data,
+ * so bounds, collision, and picking continue to work. The data of the other
+ * interleaved attributes is released, so an interleaved mesh should be
+ * treated as render-only.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class VertexInterleaver {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * alignment of each attribute in an interleaved vertex (in bytes)
+     */
+    final static int attributeAlignment = 4;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(VertexInterleaver.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private VertexInterleaver() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test whether the specified mesh can be interleaved. Meshes that are
+     * already interleaved, skinned, or morphed are excluded, as are meshes
+     * whose vertex buffers aren't direct or aren't fully populated.
+     *
+     * @param mesh the mesh to test (not null, unaffected)
+     * @return true if it can be interleaved, otherwise false
+     */
+    static boolean canInterleave(Mesh mesh) {
+        boolean result = !mesh.hasMorphTargets()
+                && mesh.getBuffer(VertexBuffer.Type.BoneIndex) == null
+                && mesh.getBuffer(VertexBuffer.Type.InterleavedData) == null
+                && mesh.getBuffer(VertexBuffer.Type.Position) != null;
+        if (result) {
+            int numVertices = mesh.getVertexCount();
+            for (VertexBuffer vertexBuffer : listAttributes(mesh)) {
+                Buffer data = vertexBuffer.getData();
+                int numComponents = vertexBuffer.getNumComponents();
+                if (data == null || !data.isDirect()
+                        || data.limit() != numVertices * numComponents
+                        || vertexBuffer.getOffset() != 0
+                        || vertexBuffer.getStride() != 0) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Copy the vertex attributes of the specified mesh into a single
+     * interleaved buffer, in the order of their buffer types. Each attribute
+     * starts on a 4-byte boundary. The data of every interleaved attribute
+     * except positions is released.
+     *
+     * @param mesh the mesh to modify (not null, {@code canInterleave(mesh)}
+     * must be true)
+     * @return the stride of the interleaved buffer (in bytes, &gt;0)
+     */
+    static int interleave(Mesh mesh) {
+        assert canInterleave(mesh);
+
+        List<VertexBuffer> attributes = listAttributes(mesh);
+        int numAttributes = attributes.size();
+        int[] offsets = new int[numAttributes];
+        int[] sizes = new int[numAttributes];
+        int stride = 0;
+        for (int i = 0; i < numAttributes; ++i) {
+            VertexBuffer vertexBuffer = attributes.get(i);
+            int bytesPerComponent = vertexBuffer.getFormat().getComponentSize();
+            sizes[i] = vertexBuffer.getNumComponents() * bytesPerComponent;
+            offsets[i] = stride;
+            stride += alignedSize(sizes[i]);
+        }
+
+        int numVertices = mesh.getVertexCount();
+        ByteBuffer data = BufferUtils.createByteBuffer(numVertices * stride);
+        long dataAddress = MemoryUtil.memAddress(data);
+        for (int i = 0; i < numAttributes; ++i) {
+            Buffer source = attributes.get(i).getData();
+            long sourceAddress = MemoryUtil.memAddress0(source);
+            long destAddress = dataAddress + offsets[i];
+            int size = sizes[i];
+            for (int vertexI = 0; vertexI < numVertices; ++vertexI) {
+                MemoryUtil.memCopy(sourceAddress + (long) vertexI * size,
+                        destAddress + (long) vertexI * stride, size);
+            }
+        }
+
+        VertexBuffer interleaved
+                = new VertexBuffer(VertexBuffer.Type.InterleavedData);
+        interleaved.setupData(VertexBuffer.Usage.Static, 1,
+                VertexBuffer.Format.UnsignedByte, data);
+        mesh.setBuffer(interleaved);
+
+        for (int i = 0; i < numAttributes; ++i) {
+            VertexBuffer vertexBuffer = attributes.get(i);
+            vertexBuffer.setOffset(offsets[i]);
+            vertexBuffer.setStride(stride);
+            if (vertexBuffer.getBufferType() != VertexBuffer.Type.Position) {
+                vertexBuffer.updateData(null);
+            }
+        }
+
+        return stride;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Round the specified attribute size up to a multiple of the attribute
+     * alignment.
+     *
+     * @param size the unaligned size (in bytes, &ge;0)
+     * @return the aligned size (in bytes, &ge;size)
+     */
+    private static int alignedSize(int size) {
+        int result = (size + attributeAlignment - 1)
+                / attributeAlignment * attributeAlignment;
+        return result;
+    }
+
+    /**
+     * Enumerate the vertex buffers of the specified mesh that would be
+     * interleaved, in the order of their buffer types.
+     *
+     * @param mesh the mesh to analyze (not null, unaffected)
+     * @return a new list of pre-existing buffers (not null)
+     */
+    private static List<VertexBuffer> listAttributes(Mesh mesh) {
+        List<VertexBuffer> result = new ArrayList<>(8);
+        for (VertexBuffer.Type type : VertexBuffer.Type.values()) {
+            VertexBuffer vertexBuffer = mesh.getBuffer(type);
+            if (vertexBuffer != null
+                    && type != VertexBuffer.Type.Index
+                    && type != VertexBuffer.Type.InterleavedData
+                    && vertexBuffer.getUsage() != VertexBuffer.Usage.CpuOnly) {
+                result.add(vertexBuffer);
+            }
+        }
+
+        return result;
+    }
+}
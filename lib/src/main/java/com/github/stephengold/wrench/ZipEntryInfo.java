@@ -0,0 +1,186 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetLoadException;
+import com.jme3.asset.AssetManager;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An asset located in an indexed zip archive. Besides the usual stream, it
+ * provides the entry's size and whole content directly, so that
+ * {@code AssetFile} needn't copy the entry through a stream.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+class ZipEntryInfo extends AssetInfo {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * largest entry that {@code openStream()} reads into memory instead of
+     * streaming (in bytes)
+     */
+    final private static long maxBufferedNumBytes = 1L << 26;
+    // *************************************************************************
+    // fields
+
+    /**
+     * archive that contains the entry
+     */
+    final private File archive;
+    /**
+     * uncompressed size of the entry when it was located (in bytes)
+     */
+    final private long size;
+    /**
+     * name of the entry in the archive
+     */
+    final private String entryName;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an asset located in the specified archive.
+     *
+     * @param manager the AssetManager that located the asset (alias created)
+     * @param key the key of the asset (not null, alias created)
+     * @param archive the archive (not null, alias created)
+     * @param index the current index of the archive (not null, unaffected)
+     * @param entryName the name of the entry (not null)
+     */
+    ZipEntryInfo(AssetManager manager, AssetKey<?> key, File archive,
+            ZipIndex index, String entryName) {
+        super(manager, key);
+        assert index.contains(entryName) : entryName;
+
+        this.archive = archive;
+        this.entryName = entryName;
+        this.size = index.size(entryName);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Read the entire content of the entry, using the archive's current index.
+     *
+     * @return a new direct buffer whose capacity equals the size of the entry
+     * (not null, read-only if mapped, otherwise writable)
+     */
+    ByteBuffer readContents() {
+        try {
+            ZipIndex index = acquireIndex();
+            try {
+                ByteBuffer result = index.readContents(entryName);
+                return result;
+            } finally {
+                index.release();
+            }
+
+        } catch (IOException exception) {
+            throw new AssetLoadException(
+                    "Failed to read zip entry " + entryName, exception);
+        }
+    }
+
+    /**
+     * Return the uncompressed size of the entry when it was located.
+     *
+     * @return the size (in bytes, &ge;0)
+     */
+    long size() {
+        return size;
+    }
+    // *************************************************************************
+    // AssetInfo methods
+
+    /**
+     * Open a stream that reads the entry, using the archive's current index.
+     * <p>
+     * An entry no larger than {@code maxBufferedNumBytes} is read (and
+     * inflated) positionally, like {@code readContents()}, so streams of the
+     * same archive don't contend for a lock. A larger entry is streamed, and
+     * the index remains open until the stream is closed.
+     *
+     * @return a new stream (not null)
+     */
+    @Override
+    public InputStream openStream() {
+        try {
+            ZipIndex index = acquireIndex();
+            boolean isStreamOwner = false;
+            try {
+                InputStream result;
+                if (index.size(entryName) <= maxBufferedNumBytes) {
+                    ByteBuffer content = index.readContents(entryName);
+                    result = new BufferInputStream(content);
+                } else {
+                    InputStream entryStream = index.openStream(entryName);
+                    result = new ZipEntryStream(entryStream, index);
+                    isStreamOwner = true; // the stream releases the index
+                }
+                return result;
+
+            } finally {
+                if (!isStreamOwner) {
+                    index.release();
+                }
+            }
+
+        } catch (IOException exception) {
+            throw new AssetLoadException(
+                    "Failed to open zip entry " + entryName, exception);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Acquire the current index of the archive, verifying that it still
+     * contains the entry.
+     *
+     * @return the index, with a reader registered (not null)
+     * @throws IOException if the archive cannot be indexed or no longer
+     * contains the entry
+     */
+    private ZipIndex acquireIndex() throws IOException {
+        ZipIndex result = ZipIndex.acquire(archive);
+        if (!result.contains(entryName)) {
+            result.release();
+            throw new IOException("No entry " + entryName + " in " + archive);
+        }
+
+        return result;
+    }
+}
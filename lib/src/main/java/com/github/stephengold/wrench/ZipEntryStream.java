@@ -0,0 +1,87 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A stream that reads a zip entry and keeps the archive's index open until the
+ * stream is closed.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+class ZipEntryStream extends FilterInputStream {
+    // *************************************************************************
+    // fields
+
+    /**
+     * true once the stream has been closed, otherwise false
+     */
+    private boolean isClosed = false;
+    /**
+     * index to release when the stream is closed
+     */
+    final private ZipIndex index;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Wrap the specified entry stream.
+     *
+     * @param entryStream the stream to wrap (not null)
+     * @param index the index to release on close, with a reader registered
+     * (not null, alias created)
+     */
+    ZipEntryStream(InputStream entryStream, ZipIndex index) {
+        super(entryStream);
+        this.index = index;
+    }
+    // *************************************************************************
+    // FilterInputStream methods
+
+    /**
+     * Close the stream and release the index. Closing an already-closed
+     * stream has no effect.
+     *
+     * @throws IOException if the entry stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!isClosed) {
+            this.isClosed = true;
+            try {
+                super.close();
+            } finally {
+                index.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,679 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+    list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+    this list of conditions and the following disclaimer in the documentation
+    and/or other materials provided with the distribution.
+
+ 3. Neither the name of the copyright holder nor the names of its
+    contributors may be used to endorse or promote products derived from
+    this software without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.stephengold.wrench;
+
+import com.jme3.util.BufferUtils;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The central directory of a zip archive, parsed once and cached for the life
+ * of the process, along with a channel for reading entries.
+ * <p>
+ * Entries are read using positional reads, so several threads can read (and
+ * inflate) entries of the same archive in parallel. Large STORED entries are
+ * mapped into memory instead of being copied.
+ * <p>
+ * Readers register with {@code acquire()} and unregister with
+ * {@code release()}. When an archive changes on disk (or the cache is
+ * cleared) its index is retired: it's no longer handed out, and it closes
+ * itself once its last reader is released.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ZipIndex {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * size of the chunks used to read compressed data (in bytes)
+     */
+    final private static int chunkNumBytes = 1 << 16;
+    /**
+     * size of a local file header, excluding the variable-length fields (in
+     * bytes)
+     */
+    final private static int localHeaderNumBytes = 30;
+    /**
+     * smallest STORED entry that's mapped instead of copied (in bytes)
+     */
+    final private static int minMapNumBytes = 1 << 16;
+    /**
+     * signature of a central-directory file header
+     */
+    final private static int sigCentralHeader = 0x02014b50;
+    /**
+     * signature of the end-of-central-directory record
+     */
+    final private static int sigEnd = 0x06054b50;
+    /**
+     * signature of a local file header
+     */
+    final private static int sigLocalHeader = 0x04034b50;
+    /**
+     * signature of the Zip64 end-of-central-directory record
+     */
+    final private static int sigZip64End = 0x06064b50;
+    /**
+     * signature of the Zip64 end-of-central-directory locator
+     */
+    final private static int sigZip64Locator = 0x07064b50;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ZipIndex.class.getName());
+    /**
+     * map canonical archive paths to indices
+     */
+    final private static Map<String, ZipIndex> indices = new HashMap<>();
+    // *************************************************************************
+    // fields
+
+    /**
+     * true once the index has been replaced or cleared from the cache
+     * (guarded by {@code this})
+     */
+    private boolean isRetired = false;
+    /**
+     * true for each entry that's encrypted
+     */
+    final private boolean[] isEncrypted;
+    /**
+     * channel used for positional reads from the archive
+     */
+    final private FileChannel channel;
+    /**
+     * number of readers currently registered (guarded by {@code this})
+     */
+    private int numReaders = 0;
+    /**
+     * compression method of each entry
+     */
+    final private int[] methods;
+    /**
+     * size of each entry's compressed data (in bytes)
+     */
+    final private long[] compressedSizes;
+    /**
+     * offset of each entry's data, or -1 if not yet known (guarded by
+     * {@code this})
+     */
+    final private long[] dataOffsets;
+    /**
+     * offset of each entry's local file header
+     */
+    final private long[] headerOffsets;
+    /**
+     * uncompressed size of each entry (in bytes)
+     */
+    final private long[] sizes;
+    /**
+     * last-modified time of the archive when it was indexed
+     */
+    final private long lastModified;
+    /**
+     * length of the archive when it was indexed (in bytes)
+     */
+    final private long length;
+    /**
+     * map entry names to positions in the arrays
+     */
+    final private Map<String, Integer> entryIndices = new HashMap<>();
+    /**
+     * canonical path to the archive
+     */
+    final private String archivePath;
+    /**
+     * archive opened for streaming entries, or null if not yet opened (guarded
+     * by {@code this})
+     */
+    private ZipFile zipFile;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Parse the central directory of the specified archive.
+     *
+     * @param archive the archive to index (not null)
+     * @throws IOException if the archive cannot be read or isn't a valid zip
+     */
+    private ZipIndex(File archive) throws IOException {
+        this.archivePath = archive.getCanonicalPath();
+        this.lastModified = archive.lastModified();
+        this.length = archive.length();
+        this.channel
+                = FileChannel.open(archive.toPath(), StandardOpenOption.READ);
+
+        try {
+            long[] location = locateDirectory();
+            int numEntries = (int) location[0];
+            ByteBuffer directory = readAt(location[2], (int) location[1]);
+
+            this.isEncrypted = new boolean[numEntries];
+            this.methods = new int[numEntries];
+            this.compressedSizes = new long[numEntries];
+            this.dataOffsets = new long[numEntries];
+            this.headerOffsets = new long[numEntries];
+            this.sizes = new long[numEntries];
+            Arrays.fill(dataOffsets, -1L);
+
+            for (int i = 0; i < numEntries; ++i) {
+                parseEntry(directory, i);
+            }
+
+        } catch (IOException | RuntimeException exception) {
+            // BufferUnderflowException, IndexOutOfBoundsException, and the
+            // like indicate a truncated or corrupt central directory:
+            channel.close();
+            throw new IOException("Failed to index " + archivePath, exception);
+        }
+
+        logger.log(Level.FINE, "Indexed {0} entries in {1}.",
+                new Object[]{entryIndices.size(), archivePath});
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Return the current index of the specified archive (as per
+     * {@code forArchive()}) with a reader registered, so that it won't be
+     * closed until {@code release()} is invoked.
+     *
+     * @param archive the archive to access (not null)
+     * @return the cached index (not null)
+     * @throws IOException if the archive cannot be read or isn't a valid zip
+     */
+    static synchronized ZipIndex acquire(File archive) throws IOException {
+        ZipIndex result = forArchive(archive);
+        synchronized (result) {
+            assert !result.isRetired;
+            ++result.numReaders;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retire all cached indices and forget them. Indices in use are closed
+     * once their readers are released. Archives are re-indexed when next
+     * accessed.
+     */
+    static synchronized void clearAll() {
+        for (ZipIndex index : indices.values()) {
+            index.retire();
+        }
+        indices.clear();
+    }
+
+    /**
+     * Test whether the archive contains the specified (non-directory) entry.
+     *
+     * @param entryName the name of the entry (not null)
+     * @return true if found, otherwise false
+     */
+    boolean contains(String entryName) {
+        boolean result = entryIndices.containsKey(entryName);
+        return result;
+    }
+
+    /**
+     * Return the index of the specified archive, parsing its central
+     * directory if it isn't already cached or if the archive has changed
+     * since it was cached. An outdated index is retired.
+     *
+     * @param archive the archive to access (not null)
+     * @return the cached index (not null)
+     * @throws IOException if the archive cannot be read or isn't a valid zip
+     */
+    static synchronized ZipIndex forArchive(File archive) throws IOException {
+        String path = archive.getCanonicalPath();
+        ZipIndex result = indices.get(path);
+        if (result != null && (result.lastModified != archive.lastModified()
+                || result.length != archive.length())) {
+            result.retire();
+            result = null;
+        }
+        if (result == null) {
+            result = new ZipIndex(archive);
+            indices.put(path, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Open an input stream for the specified entry. Streams share a single
+     * {@code ZipFile}, so this is used only for entries too large to read
+     * into memory.
+     *
+     * @param entryName the name of the entry (not null)
+     * @return a new stream (not null)
+     * @throws IOException if the entry cannot be read or is encrypted
+     */
+    InputStream openStream(String entryName) throws IOException {
+        verifyNotEncrypted(entryName);
+
+        ZipFile file;
+        synchronized (this) {
+            if (zipFile == null) {
+                this.zipFile = new ZipFile(archivePath);
+            }
+            file = zipFile;
+        }
+
+        ZipEntry entry = file.getEntry(entryName);
+        if (entry == null) {
+            throw new IOException("No entry " + entryName + " in "
+                    + archivePath);
+        }
+        InputStream result = file.getInputStream(entry);
+
+        return result;
+    }
+
+    /**
+     * Read the entire content of the specified entry. A large STORED entry is
+     * mapped into memory. A DEFLATED entry is inflated directly into a buffer
+     * of the exact size.
+     *
+     * @param entryName the name of the entry (not null)
+     * @return a new direct buffer whose capacity equals the size of the entry
+     * (not null, read-only if mapped, otherwise writable)
+     * @throws IOException if the entry cannot be read, is encrypted, or is
+     * larger than 2 GiB
+     */
+    ByteBuffer readContents(String entryName) throws IOException {
+        verifyNotEncrypted(entryName);
+        int i = entryIndices.get(entryName);
+        if (sizes[i] > Integer.MAX_VALUE) {
+            throw new IOException("Zip entry exceeds 2 GiB.");
+        }
+        int numBytes = (int) sizes[i];
+        long dataOffset = dataOffset(i);
+
+        ByteBuffer result;
+        if (methods[i] == ZipEntry.STORED && numBytes >= minMapNumBytes) {
+            result = channel.map(
+                    FileChannel.MapMode.READ_ONLY, dataOffset, numBytes);
+
+        } else if (methods[i] == ZipEntry.STORED) {
+            result = BufferUtils.createByteBuffer(numBytes);
+            readFully(result, dataOffset);
+            result.flip();
+
+        } else if (methods[i] == ZipEntry.DEFLATED) {
+            result = inflate(dataOffset, compressedSizes[i], numBytes);
+
+        } else {
+            throw new IOException("Unsupported compression method "
+                    + methods[i] + " for " + entryName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Unregister a reader added by {@code acquire()}, closing the archive if
+     * the index has been retired and no readers remain.
+     */
+    synchronized void release() {
+        assert numReaders > 0 : numReaders;
+
+        --numReaders;
+        if (isRetired && numReaders == 0) {
+            close();
+        }
+    }
+
+    /**
+     * Return the uncompressed size of the specified entry.
+     *
+     * @param entryName the name of the entry (not null)
+     * @return the size (in bytes, &ge;0)
+     */
+    long size(String entryName) {
+        int i = entryIndices.get(entryName);
+        long result = sizes[i];
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Apply any Zip64 extended-information field to the specified entry.
+     *
+     * @param directory the central directory (not null, positioned at the
+     * start of the extra fields, position modified)
+     * @param extraLength the total length of the extra fields (in bytes)
+     * @param i the position of the entry in the arrays
+     */
+    private void applyZip64Extra(ByteBuffer directory, int extraLength, int i) {
+        int end = directory.position() + extraLength;
+        int fieldStart = directory.position();
+        while (fieldStart + 4 <= end) {
+            int headerId = directory.getShort(fieldStart) & 0xffff;
+            int dataSize = directory.getShort(fieldStart + 2) & 0xffff;
+            if (headerId == 0x0001) { // Zip64 extended information
+                int offset = fieldStart + 4;
+                if (sizes[i] == 0xffffffffL) {
+                    sizes[i] = directory.getLong(offset);
+                    offset += 8;
+                }
+                if (compressedSizes[i] == 0xffffffffL) {
+                    compressedSizes[i] = directory.getLong(offset);
+                    offset += 8;
+                }
+                if (headerOffsets[i] == 0xffffffffL) {
+                    headerOffsets[i] = directory.getLong(offset);
+                }
+                break;
+            }
+            fieldStart += 4 + dataSize;
+        }
+    }
+
+    /**
+     * Close the archive.
+     */
+    private synchronized void close() {
+        try {
+            channel.close();
+            if (zipFile != null) {
+                zipFile.close();
+                this.zipFile = null;
+            }
+        } catch (IOException exception) {
+            logger.log(Level.WARNING, "Failed to close " + archivePath,
+                    exception);
+        }
+    }
+
+    /**
+     * Return the offset of the specified entry's data, reading its local file
+     * header if necessary.
+     *
+     * @param i the position of the entry in the arrays
+     * @return the offset (in bytes from the start of the archive, &ge;0)
+     * @throws IOException if the local header cannot be read
+     */
+    private synchronized long dataOffset(int i) throws IOException {
+        long result = dataOffsets[i];
+        if (result < 0L) {
+            ByteBuffer header = readAt(headerOffsets[i], localHeaderNumBytes);
+            if (header.getInt(0) != sigLocalHeader) {
+                throw new IOException("Corrupt local header in "
+                        + archivePath);
+            }
+            int nameLength = header.getShort(26) & 0xffff;
+            int extraLength = header.getShort(28) & 0xffff;
+            result = headerOffsets[i] + localHeaderNumBytes + nameLength
+                    + extraLength;
+            dataOffsets[i] = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Inflate raw DEFLATE data from the archive into a new direct buffer.
+     *
+     * @param dataOffset the offset of the compressed data (&ge;0)
+     * @param numCompressed the size of the compressed data (in bytes, &ge;0)
+     * @param numBytes the size of the uncompressed data (in bytes, &ge;0)
+     * @return a new direct buffer, flipped (not null)
+     * @throws IOException if the data cannot be read or are corrupt
+     */
+    private ByteBuffer inflate(long dataOffset, long numCompressed,
+            int numBytes) throws IOException {
+        ByteBuffer result = BufferUtils.createByteBuffer(numBytes);
+        byte[] input = new byte[chunkNumBytes];
+        ByteBuffer inputBuffer = ByteBuffer.wrap(input);
+        byte[] output = new byte[chunkNumBytes];
+
+        Inflater inflater = new Inflater(true);
+        try {
+            long position = dataOffset;
+            long numRemaining = numCompressed;
+            boolean addedDummy = false;
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (numRemaining > 0L) {
+                        int n = (int) Math.min(chunkNumBytes, numRemaining);
+                        inputBuffer.clear();
+                        inputBuffer.limit(n);
+                        readFully(inputBuffer, position);
+                        inflater.setInput(input, 0, n);
+                        position += n;
+                        numRemaining -= n;
+
+                    } else if (!addedDummy) {
+                        // A raw inflater may need one extra byte to finish:
+                        input[0] = 0;
+                        inflater.setInput(input, 0, 1);
+                        addedDummy = true;
+
+                    } else {
+                        throw new EOFException("Truncated zip entry in "
+                                + archivePath);
+                    }
+                }
+
+                int numInflated = inflater.inflate(output);
+                if (numInflated > result.remaining()) {
+                    throw new IOException("Zip entry exceeds its declared "
+                            + "size in " + archivePath);
+                }
+                result.put(output, 0, numInflated);
+            }
+
+        } catch (DataFormatException exception) {
+            throw new IOException("Corrupt zip entry in " + archivePath,
+                    exception);
+        } finally {
+            inflater.end();
+        }
+        result.flip();
+
+        return result;
+    }
+
+    /**
+     * Locate the central directory using the end-of-central-directory record
+     * (and its Zip64 counterpart, if present).
+     *
+     * @return a new array containing the number of entries, the size of the
+     * directory, and its offset
+     * @throws IOException if the archive cannot be read or isn't a valid zip
+     */
+    private long[] locateDirectory() throws IOException {
+        // The end record (22 bytes) may be followed by a comment:
+        int tailLength = (int) Math.min(length, 22 + 0xffff);
+        long tailOffset = length - tailLength;
+        ByteBuffer tail = readAt(tailOffset, tailLength);
+
+        int endPos = tailLength - 22;
+        while (endPos >= 0 && tail.getInt(endPos) != sigEnd) {
+            --endPos;
+        }
+        if (endPos < 0) {
+            throw new IOException("Not a zip archive: " + archivePath);
+        }
+
+        long numEntries = tail.getShort(endPos + 10) & 0xffff;
+        long directorySize = tail.getInt(endPos + 12) & 0xffffffffL;
+        long directoryOffset = tail.getInt(endPos + 16) & 0xffffffffL;
+
+        int locatorPos = endPos - 20;
+        long locatorOffset = tailOffset + locatorPos;
+        if (locatorOffset >= 0L) {
+            ByteBuffer locator = (locatorPos >= 0)
+                    ? tail : readAt(locatorOffset, 20);
+            int base = (locatorPos >= 0) ? locatorPos : 0;
+            if (locator.getInt(base) == sigZip64Locator) {
+                long zip64EndOffset = locator.getLong(base + 8);
+                ByteBuffer zip64End = readAt(zip64EndOffset, 56);
+                if (zip64End.getInt(0) != sigZip64End) {
+                    throw new IOException("Corrupt Zip64 record in "
+                            + archivePath);
+                }
+                numEntries = zip64End.getLong(32);
+                directorySize = zip64End.getLong(40);
+                directoryOffset = zip64End.getLong(48);
+            }
+        }
+
+        if (directorySize > Integer.MAX_VALUE
+                || numEntries > Integer.MAX_VALUE) {
+            throw new IOException("Central directory too large in "
+                    + archivePath);
+        }
+        long[] result = {numEntries, directorySize, directoryOffset};
+
+        return result;
+    }
+
+    /**
+     * Parse the central-directory header of the specified entry.
+     *
+     * @param directory the central directory (not null, positioned at the
+     * start of the header, position advanced past the header)
+     * @param i the position of the entry in the arrays
+     * @throws IOException if the header is corrupt
+     */
+    private void parseEntry(ByteBuffer directory, int i) throws IOException {
+        int start = directory.position();
+        if (directory.getInt(start) != sigCentralHeader) {
+            throw new IOException("Corrupt central directory in "
+                    + archivePath);
+        }
+        int flags = directory.getShort(start + 8) & 0xffff;
+        isEncrypted[i] = (flags & 0x1) != 0;
+        methods[i] = directory.getShort(start + 10) & 0xffff;
+        compressedSizes[i] = directory.getInt(start + 20) & 0xffffffffL;
+        sizes[i] = directory.getInt(start + 24) & 0xffffffffL;
+        int nameLength = directory.getShort(start + 28) & 0xffff;
+        int extraLength = directory.getShort(start + 30) & 0xffff;
+        int commentLength = directory.getShort(start + 32) & 0xffff;
+        headerOffsets[i] = directory.getInt(start + 42) & 0xffffffffL;
+
+        byte[] nameBytes = new byte[nameLength];
+        directory.position(start + 46);
+        directory.get(nameBytes);
+        Charset charset = ((flags & 0x800) != 0)
+                ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+        String name = new String(nameBytes, charset);
+
+        applyZip64Extra(directory, extraLength, i);
+        directory.position(
+                start + 46 + nameLength + extraLength + commentLength);
+
+        if (!name.endsWith("/")) { // ignore directory entries
+            entryIndices.put(name, i);
+        }
+    }
+
+    /**
+     * Read the specified range of the archive into a new heap buffer.
+     *
+     * @param offset the offset of the first byte to read (&ge;0)
+     * @param numBytes the number of bytes to read (&ge;0)
+     * @return a new little-endian buffer, positioned at its start (not null)
+     * @throws IOException if the range cannot be read
+     */
+    private ByteBuffer readAt(long offset, int numBytes) throws IOException {
+        ByteBuffer result = ByteBuffer.allocate(numBytes);
+        result.order(ByteOrder.LITTLE_ENDIAN);
+        readFully(result, offset);
+        result.flip();
+
+        return result;
+    }
+
+    /**
+     * Fill the remainder of the specified buffer from the archive.
+     *
+     * @param buffer the buffer to fill (not null, modified)
+     * @param offset the offset of the first byte to read (&ge;0)
+     * @throws IOException if the archive ends prematurely or cannot be read
+     */
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int numBytesRead = channel.read(buffer, position);
+            if (numBytesRead < 0) {
+                throw new EOFException("Unexpected end of " + archivePath);
+            }
+            position += numBytesRead;
+        }
+    }
+
+    /**
+     * Retire the index, closing the archive immediately if no readers are
+     * registered.
+     */
+    private synchronized void retire() {
+        this.isRetired = true;
+        if (numReaders == 0) {
+            close();
+        }
+    }
+
+    /**
+     * Verify that the specified entry isn't encrypted.
+     *
+     * @param entryName the name of the entry (not null)
+     * @throws IOException if the entry is encrypted
+     */
+    private void verifyNotEncrypted(String entryName) throws IOException {
+        int i = entryIndices.get(entryName);
+        if (isEncrypted[i]) {
+            throw new IOException("Zip entry " + entryName + " in "
+                    + archivePath + " is encrypted, which isn't supported.");
+        }
+    }
+}